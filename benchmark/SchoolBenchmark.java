@@ -0,0 +1,247 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.ToLongFunction;
+
+/**
+ * This class defines the {@code SchoolBenchmark}, a self-contained micro-benchmark harness for the daily tick of the
+ * simulation and its phases: {@link School#aDayAtSchool()}, {@link School#coursesRefresh()},
+ * {@link School#assignInstructorToEachCourse()}, {@link School#enrolFreeStudents()}, {@link School#advanceCourses()},
+ * {@link Administrator#studentsLeaving()} and {@link School#toString()}.
+ * Every phase is measured over a grid of school sizes (students, instructors, subjects and prerequisite depth). For
+ * each measured iteration a few new {@link School}s are generated from a fixed seed and simulated for a few warm-up
+ * days, then the phase is timed against each of them in a row, so that every call runs against the same, realistic
+ * state and the time of a single call is averaged over several of them. Each phase returns a value derived from its
+ * result or from the state it leaves behind, and these values are added up into a checksum printed with the results,
+ * so that the work of the phases cannot be optimised away.
+ * <p>
+ * Usage (from the repository root):
+ * <pre>
+ *     javac -encoding UTF-8 -d out src/*.java benchmark/*.java
+ *     java -cp out SchoolBenchmark [--students=1000,10000] [--instructors=100] [--subjects=50] [--depth=0,3]
+ *                                  [--phases=aDayAtSchool,enrolFreeStudents] [--warmups=3] [--iterations=5]
+ *                                  [--repeats=5]
+ * </pre>
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SchoolBenchmark {
+    private static final long SEED = 20200101L;         // The seed every generated school is created from.
+    private static final int WARM_UP_DAYS = 10;          // The days simulated before timing a phase.
+
+    /** The benchmarked phases, by name, in the order they are reported, each returning a value for the checksum. */
+    private static final Map<String, ToLongFunction<Administrator>> PHASES = new LinkedHashMap<>();
+
+    static {
+        PHASES.put("aDayAtSchool", administrator -> {
+            administrator.getSchool().aDayAtSchool();
+            return administrator.getSchool().getCourses().size();
+        });
+        PHASES.put("coursesRefresh", administrator -> {
+            administrator.getSchool().coursesRefresh();
+            return administrator.getSchool().getCourses().size();
+        });
+        PHASES.put("assignInstructorToEachCourse", administrator -> {
+            administrator.getSchool().assignInstructorToEachCourse();
+            return administrator.getSchool().getCourses().size();
+        });
+        PHASES.put("enrolFreeStudents", administrator -> {
+            administrator.getSchool().enrolFreeStudents();
+            return administrator.getSchool().getActiveStudentCount();
+        });
+        PHASES.put("advanceCourses", administrator -> {
+            administrator.getSchool().advanceCourses();
+            return administrator.getSchool().getCourses().size();
+        });
+        PHASES.put("studentsLeaving", administrator -> {
+            administrator.studentsLeaving();
+            return administrator.getSchool().getStudentCount();
+        });
+        PHASES.put("toString", administrator -> administrator.getSchool().toString().length());
+    }
+
+    private int[] studentCounts = {1_000, 10_000};      // The numbers of students to benchmark.
+    private int[] instructorCounts = {100};               // The numbers of instructors to benchmark.
+    private int[] subjectCounts = {50};                   // The numbers of subjects to benchmark.
+    private int[] prerequisiteDepths = {0, 3};            // The lengths of the longest prerequisite chains to benchmark.
+    private ArrayList<String> phases = new ArrayList<>(PHASES.keySet());   // The names of the phases to benchmark.
+    private int warmups = 3;                              // The untimed iterations of each benchmark.
+    private int iterations = 5;                           // The timed iterations of each benchmark.
+    private int repeats = 5;                              // The schools the phase is timed against in each iteration.
+    private long checksum;                                // The sum of the values returned by the timed phases.
+
+    /**
+     * Generates a new {@link School} with the sizes passed as parameters, run by a seeded {@link Administrator}, and
+     * simulates it for {@code WARM_UP_DAYS} days.
+     * Subject {@code i} has specialism {@code 1 + i % 4} and, if it is not in the first layer, the subject of the
+     * previous layer as prerequisite; there are {@code depth + 1} layers, so the longest prerequisite chain is
+     * {@code depth} subjects long.
+     *
+     * @param students          the number of students of the school
+     * @param instructors       the number of instructors of the school
+     * @param subjects          the number of subjects taught in the school
+     * @param depth             the length of the longest prerequisite chain
+     * @return the administrator running the generated school
+     */
+    public static Administrator createSchool(int students, int instructors, int subjects, int depth) {
+        School school = new School("Benchmark School");
+        school.setMaxEnrollableCourses(2);
+        school.setMaxAssignableCourses(2);
+        SplittableRandom random = new SplittableRandom(SEED);
+        PersonGenerator personGenerator = new PersonGenerator(random.split());
+
+        int subjectsPerLayer = Math.max(1, (subjects + depth) / (depth + 1));
+        for (int id = 1; id <= subjects; id++) {
+            Subject subject = new Subject(id, 1 + id % 4, 2 + random.nextInt(5));
+            subject.setDescription("Subject " + id);
+            if (id > subjectsPerLayer) {
+                subject.addPrerequisites(id - subjectsPerLayer);
+            }
+            school.add(subject);
+        }
+
+        PersonType[] instructorTypes = {PersonType.TEACHER, PersonType.DEMONSTRATOR, PersonType.OO_TRAINER,
+                PersonType.GUI_TRAINER};
+        for (int i = 0; i < instructors; i++) {
+            school.add(personGenerator.createInstructor(instructorTypes[i % instructorTypes.length]));
+        }
+        for (Student student : personGenerator.createStudents(students)) {
+            school.add(student);
+        }
+
+        Administrator administrator = new Administrator(school, SEED);
+        administrator.setReportMode(ReportMode.NONE);
+        for (int day = 0; day < WARM_UP_DAYS; day++) {
+            administrator.run();
+        }
+        return administrator;
+    }
+
+    /**
+     * Times the {@code phase} passed as parameter against {@code repeats} newly generated schools, one invocation each,
+     * adding the values it returns to the {@code checksum}.
+     *
+     * @param phase             the phase to time
+     * @param students          the number of students of the school
+     * @param instructors       the number of instructors of the school
+     * @param subjects          the number of subjects taught in the school
+     * @param depth             the length of the longest prerequisite chain
+     * @return the mean time taken by one invocation of the phase, in nanoseconds
+     */
+    private long time(ToLongFunction<Administrator> phase, int students, int instructors, int subjects, int depth) {
+        Administrator[] administrators = new Administrator[repeats];
+        for (int i = 0; i < repeats; i++) {
+            administrators[i] = createSchool(students, instructors, subjects, depth);
+        }
+        long start = System.nanoTime();
+        for (Administrator administrator : administrators) {
+            checksum += phase.applyAsLong(administrator);
+        }
+        return (System.nanoTime() - start) / repeats;
+    }
+
+    /**
+     * Runs every selected phase over the whole grid of school sizes and writes one row of results per benchmark to the
+     * {@link Writer} passed as parameter.
+     *
+     * @param out               the output to write the results to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    public void run(Writer out) throws IOException {
+        out.write(String.format("%-30s %9s %12s %9s %6s %14s %14s %12s%n", "Phase:", "Students:", "Instructors:",
+                "Subjects:", "Depth:", "Mean (ms):", "Min (ms):", "Checksum:"));
+        out.flush();
+
+        for (String phaseName : phases) {
+            ToLongFunction<Administrator> phase = PHASES.get(phaseName);
+            for (int students : studentCounts) {
+                for (int instructors : instructorCounts) {
+                    for (int subjects : subjectCounts) {
+                        for (int depth : prerequisiteDepths) {
+                            for (int i = 0; i < warmups; i++) {
+                                time(phase, students, instructors, subjects, depth);
+                            }
+                            checksum = 0;
+                            long total = 0;
+                            long min = Long.MAX_VALUE;
+                            for (int i = 0; i < iterations; i++) {
+                                long elapsed = time(phase, students, instructors, subjects, depth);
+                                total += elapsed;
+                                min = Math.min(min, elapsed);
+                            }
+                            out.write(String.format("%-30s %9d %12d %9d %6d %14.3f %14.3f %12d%n", phaseName,
+                                    students, instructors, subjects, depth, total / (iterations * 1e6), min / 1e6,
+                                    checksum));
+                            out.flush();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses a comma-separated list of integers, as given on the command line.
+     *
+     * @param values            the comma-separated list of integers
+     * @return the array of the parsed integers
+     */
+    private static int[] parseInts(String values) {
+        String[] tokens = values.split(",");
+        int[] ints = new int[tokens.length];
+        for (int i = 0; i < tokens.length; i++) {
+            ints[i] = Integer.parseInt(tokens[i].trim());
+        }
+        return ints;
+    }
+
+    /**
+     * SchoolBenchmark's class main method.
+     * Reads the optional grid of school sizes, phases and iterations from the command line and runs the benchmarks,
+     * printing the results to the standard output.
+     */
+    public static void main(String[] args) throws IOException {
+        SchoolBenchmark benchmark = new SchoolBenchmark();
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--students=")) {
+                benchmark.studentCounts = parseInts(value);
+            } else if (arg.startsWith("--instructors=")) {
+                benchmark.instructorCounts = parseInts(value);
+            } else if (arg.startsWith("--subjects=")) {
+                benchmark.subjectCounts = parseInts(value);
+            } else if (arg.startsWith("--depth=")) {
+                benchmark.prerequisiteDepths = parseInts(value);
+            } else if (arg.startsWith("--warmups=")) {
+                benchmark.warmups = Integer.parseInt(value);
+            } else if (arg.startsWith("--iterations=")) {
+                benchmark.iterations = Integer.parseInt(value);
+            } else if (arg.startsWith("--repeats=")) {
+                benchmark.repeats = Integer.parseInt(value);
+            } else if (arg.startsWith("--phases=")) {
+                benchmark.phases = new ArrayList<>();
+                for (String phase : value.split(",")) {
+                    if (!PHASES.containsKey(phase)) {
+                        throw new InvalidInputException("Unknown phase: " + phase + ". Please select some of: " +
+                                PHASES.keySet() + "\n");
+                    }
+                    benchmark.phases.add(phase);
+                }
+            } else {
+                throw new InvalidInputException("Unknown option: " + arg + "\n");
+            }
+        }
+        if (benchmark.warmups < 0 || benchmark.iterations < 1 || benchmark.repeats < 1) {
+            throw new InvalidInputException("The warm-ups cannot be negative, and the iterations and the repeats must " +
+                    "be positive.\n");
+        }
+        benchmark.run(new BufferedWriter(new OutputStreamWriter(System.out)));
+    }
+}
@@ -1,178 +1,596 @@
-import java.util.HashSet;
-import java.util.Random;
-
-/**
- * This class defines the {@link School}'s {@link Administrator}, which, in our simulation, is responsible for running
- * the School.
- * The class provides all the properties and methods necessary to run the School and simulates the probabilities
- * that a certain number of new Students and new Instructors will join or leave.
- * The probability is simulated in {@link #probabilityDeterminer(double)}, while the new {@link Person} objects that may
- * join the School are generated using {@link PersonGenerator}.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class Administrator {
-    private School school;                          // The school the administrator runs.
-    private PersonGenerator personGenerator;        // The tool used to create new random people.
-
-    /**
-     * Creates a new {@link Administrator} object and initializes the {@code school} and {@code personGenerator} variables.
-     *
-     * @param school            the school the administrator runs
-     */
-    public Administrator(School school) {
-        this.school = school;
-        personGenerator = new PersonGenerator();
-    }
-
-    /**
-     * Administrator's {@code school} accessor method.
-     *
-     * @return the school the administrator runs
-     */
-    public School getSchool() {
-        return school;
-    }
-
-    /**
-     * Runs the school for one day: <ol>
-     *      <li> Admits a random number of {@code Students} to the {@code school}.</li>
-     *      <li> Enrols a new {@code Instructor}.</li>
-     *      <li> Runs the {@code school}.</li>
-     *      <li> Removes {@code Instructors} who might leave the {@code school}.</li>
-     *      <li> Removes {@code Students} who might leave the {@code school}.</li> </ol>
-     */
-    public void run() {
-        enrolNewStudents();                // Admits a random number of students to the school.
-        enrolNewInstructor();              // Enrols a new Instructor.
-        school.aDayAtSchool();             // Runs the school.
-        instructorLeaving();               // Removes Instructors who might leave the school.
-        studentsLeaving();                 // Removes Students who might leave the school.
-    }
-
-    /**
-     * Runs the {@link School} for the {@code daysToRun} passed as parameter, printing out the status at the end of each
-     * one. This method overloads {@link #run()}.
-     *
-     * @param daysToRun         the number of days to run the school simulation for
-     */
-    public void run(int daysToRun) {
-        for (int i = 1; i <= daysToRun; i++) {
-            run();
-            System.out.println("Day: " + i);
-            System.out.println(school.toString());
-        }
-    }
-
-    /**
-     * Simulates the possibility that up to 2 new students join the school.
-     */
-    public void enrolNewStudents() {
-
-        // Generates a random number between 0 and 3 to decide how many students will be admitted, then adds them.
-        int admittedStudents = new Random().nextInt(3);
-
-        for (int i = admittedStudents; i > 0; i--) {
-            school.add((Student) PersonGenerator.createPerson("Student"));
-        }
-    }
-
-    /**
-     * Simulates the possibility that a new instructor joins the school.
-     */
-    public void enrolNewInstructor() {
-
-        // Simulates a 20% chance that a new Teacher will join the school.
-        if (probabilityDeterminer(20)) {
-            school.add((Teacher) PersonGenerator.createPerson("Teacher"));
-        }
-
-        // Simulates a 10% chance that a new Demonstrator will join the school.
-        if (probabilityDeterminer(10)) {
-            school.add((Demonstrator) PersonGenerator.createPerson("Demonstrator"));
-        }
-
-        // Simulates a 5% chance that a new OOTrainer will join the school.
-        if (probabilityDeterminer(5)) {
-            school.add((OOTrainer) PersonGenerator.createPerson("OOTrainer"));
-        }
-
-        // Simulates a 5% chance that a new GUITrainer will join the school.
-        if (probabilityDeterminer(5)) {
-            school.add((GUITrainer) PersonGenerator.createPerson("GUITrainer"));
-        }
-    }
-
-    /**
-     * Iterates over each school's {@code Instructor} and, if free, simulates the 20% possibility that they have to leave.
-     * If that is the case, removes the instructor from the school.
-     */
-    public void instructorLeaving() {
-        Instructor[] instructors = school.getInstructors().toArray(new Instructor[0]);
-        for (Instructor instructor : instructors) {
-            if (instructor.getAssignedCourses() == null) {
-                if (probabilityDeterminer(20)) {
-                    school.remove(instructor);
-                }
-            }
-        }
-    }
-
-    /**
-     * Iterating over each {@code School}'s {@code Student}, removes graduated students and simulates the 5% possibility
-     * that a student who is not enrolled to any course leaves the school.
-     */
-    public void studentsLeaving() {
-
-        // Creates an Hash Set containing all school Subjects IDs (useful for next operation).
-        HashSet<Integer> allSubjectsCertificates = new HashSet<>();
-        for (Subject subject : school.getSubjects()) {
-            allSubjectsCertificates.add(subject.getID());
-        }
-
-        /* For each student in the school, if has obtained the certificates for all subjects, will leave the school.
-        Otherwise, if the student does not enrol in any course, he or she has 5% chance of leaving the school.
-        It uses an array to avoid ConcurrentModificationException.*/
-        Student[] students = school.getStudents().toArray(new Student[0]);
-
-        for (Student student : students) {
-            if (student.getCertificates().containsAll(allSubjectsCertificates)) {
-                school.remove(student);
-            }
-
-            if (school.getActiveStudents() != null) {
-                if (!school.getActiveStudents().contains(student)) {
-                    if (probabilityDeterminer(5)) {
-                        school.remove(student);
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Simulates an event, given a certain {@code probabilityPercentage} that it happens.
-     *
-     * @param probabilityPercentage         the probability that the event happens, in percentage (0 - 100)
-     * @return true if the event happens, false otherwise
-     */
-    public static boolean probabilityDeterminer(double probabilityPercentage) {
-        if (probabilityPercentage > 100 || probabilityPercentage < 0) {
-            System.err.println("Please set a percentage value between 0 and 100.");
-            return false;
-        } else {
-            return (Math.random() <= (probabilityPercentage / 100));
-        }
-    }
-
-    /**
-     * Administrator's class main method.
-     * Takes the name of the configuration file and runs the simulation for the specified number of days.
-     */
-    public static void main(String[] args) {
-        SimulationUtility simulationUtility = new SimulationUtility();
-        simulationUtility.setup(args[0]);
-        simulationUtility.getAdministrator().run(Integer.parseInt(args[1]));
-    }
-}
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the {@link School}'s {@link Administrator}, which, in our simulation, is responsible for running
+ * the School.
+ * The class provides all the properties and methods necessary to run the School and simulates the probabilities
+ * that a certain number of new Students and new Instructors will join or leave.
+ * The probability is simulated in {@link #probabilityDeterminer(double)}, while the new {@link Person} objects that may
+ * join the School are generated using {@link PersonGenerator}.
+ * All the random events of the simulation are drawn from a single {@link SplittableRandom}, so that a simulation run
+ * with the same seed (see {@link #setSeed(long)}) always has the same outcome.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class Administrator {
+    private School school;                          // The school the administrator runs.
+    private PersonGenerator personGenerator;        // The tool used to create new random people.
+    private SplittableRandom random;                // The source of all the random events of the simulation.
+    private ReportMode reportMode;                  // How the status of the school is reported while running.
+    private int reportInterval;                     // The number of days between two reports.
+    private Writer reportOutput;                    // The output the reports are streamed to.
+    private Writer metricsOutput;                   // The output the metrics are dumped to (null if not dumped).
+    private int metricsInterval;                    // The number of days between two dumps of the metrics.
+    private boolean metricsAsJson;                  // T if the metrics are dumped as JSON lines, F if as CSV rows.
+    private boolean metricsHeaderWritten;           // T if the CSV header of the metrics has been written already.
+    private String snapshotFileName;                // The file the snapshots are saved to (null if not saved).
+    private int snapshotInterval;                   // The number of days between two snapshots.
+    private int day;                                // The number of days the school has been run for.
+
+    /**
+     * Creates a new {@link Administrator} object and initializes the {@code school}, {@code random} and
+     * {@code personGenerator} variables, using an unseeded random source.
+     *
+     * @param school            the school the administrator runs
+     */
+    public Administrator(School school) {
+        this(school, new SplittableRandom());
+    }
+
+    /**
+     * Creates a new {@link Administrator} object and initializes the {@code school}, {@code random} and
+     * {@code personGenerator} variables, using a random source created from the {@code seed} passed as parameter.
+     *
+     * @param school            the school the administrator runs
+     * @param seed              the seed of the random source of the simulation
+     */
+    public Administrator(School school, long seed) {
+        this(school, new SplittableRandom(seed));
+    }
+
+    /**
+     * Creates a new {@link Administrator} object and initializes the {@code school}, {@code random} and
+     * {@code personGenerator} variables, using the random source passed as parameter.
+     *
+     * @param school            the school the administrator runs
+     * @param random            the source of all the random events of the simulation
+     */
+    private Administrator(School school, SplittableRandom random) {
+        this.school = school;
+        setRandom(random);
+        reportMode = ReportMode.EVERY;
+        reportInterval = 1;
+        reportOutput = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    }
+
+    /**
+     * Re-seeds the random source of the simulation, so that the following days are reproducible from the
+     * {@code seed} passed as parameter.
+     *
+     * @param seed              the seed of the random source of the simulation
+     */
+    public void setSeed(long seed) {
+        setRandom(new SplittableRandom(seed));
+    }
+
+    /**
+     * Sets the random source of the simulation and gives the {@code personGenerator} its own independent split of it.
+     *
+     * @param random            the source of all the random events of the simulation
+     */
+    private void setRandom(SplittableRandom random) {
+        this.random = random;
+        personGenerator = new PersonGenerator(random.split());
+    }
+
+    /**
+     * Returns a new random source split from the one of the simulation, e.g. to give each thread working on the
+     * simulation its own independent (but still reproducible) source of random values.
+     *
+     * @return a new random source, independent from the one of the simulation
+     */
+    public SplittableRandom splitRandom() {
+        return random.split();
+    }
+
+    /**
+     * Administrator's {@code school} accessor method.
+     *
+     * @return the school the administrator runs
+     */
+    public School getSchool() {
+        return school;
+    }
+
+    /**
+     * Administrator's {@code day} accessor method.
+     *
+     * @return the number of days the school has been run for
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Administrator's {@code day} setter method, e.g. to resume a simulation from a {@link SchoolSnapshot}.
+     *
+     * @param day               the number of days the school has been run for
+     */
+    public void setDay(int day) {
+        this.day = day;
+    }
+
+    /**
+     * Administrator's {@code reportMode} setter method.
+     *
+     * @param reportMode        how the status of the school is reported by {@link #run(int)}
+     */
+    public void setReportMode(ReportMode reportMode) {
+        this.reportMode = reportMode;
+    }
+
+    /**
+     * Administrator's {@code reportInterval} setter method.
+     *
+     * @param reportInterval            the number of days between two reports of {@link ReportMode#EVERY} and
+     *                                  {@link ReportMode#SUMMARY} modes
+     * @throws InvalidInputException    If the number of days is not a positive integer
+     */
+    public void setReportInterval(int reportInterval) {
+        if (reportInterval < 1) {
+            throw new InvalidInputException("The number of days between two reports must be greater than 0.\n");
+        }
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * Administrator's {@code reportOutput} setter method. By default, the reports are streamed to the standard output.
+     *
+     * @param reportOutput      the output the reports printed by {@link #run(int)} are streamed to
+     */
+    public void setReportOutput(Writer reportOutput) {
+        this.reportOutput = reportOutput;
+    }
+
+    /**
+     * Sets the output the {@link SimulationMetrics} of the school are dumped to by {@link #run(int)}, every
+     * {@code metricsInterval} days, either as CSV rows (preceded by a header) or as JSON lines.
+     *
+     * @param metricsOutput             the output the metrics are dumped to, or null to stop dumping them
+     * @param metricsInterval           the number of days between two dumps
+     * @param metricsAsJson             true to dump the metrics as JSON lines, false to dump them as CSV rows
+     * @throws InvalidInputException    If the number of days is not a positive integer
+     */
+    public void setMetricsOutput(Writer metricsOutput, int metricsInterval, boolean metricsAsJson) {
+        if (metricsInterval < 1) {
+            throw new InvalidInputException("The number of days between two dumps must be greater than 0.\n");
+        }
+        this.metricsOutput = metricsOutput;
+        this.metricsInterval = metricsInterval;
+        this.metricsAsJson = metricsAsJson;
+        metricsHeaderWritten = false;
+    }
+
+    /**
+     * Sets the file a {@link SchoolSnapshot} of the school is saved to by {@link #run(int)}, every
+     * {@code snapshotInterval} days and at the end of the run.
+     *
+     * @param snapshotFileName          the file the snapshots are saved to, or null to stop saving them
+     * @param snapshotInterval          the number of days between two snapshots
+     * @throws InvalidInputException    If the number of days is not a positive integer
+     */
+    public void setSnapshotOutput(String snapshotFileName, int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new InvalidInputException("The number of days between two snapshots must be greater than 0.\n");
+        }
+        this.snapshotFileName = snapshotFileName;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Runs the school for one day: <ol>
+     *      <li> Admits a random number of {@code Students} to the {@code school}.</li>
+     *      <li> Enrols a new {@code Instructor}.</li>
+     *      <li> Runs the {@code school}.</li>
+     *      <li> Removes {@code Instructors} who might leave the {@code school}.</li>
+     *      <li> Removes {@code Students} who might leave the {@code school}.</li> </ol>
+     */
+    public void run() {
+        SimulationMetrics metrics = school.getMetrics();
+
+        /* Admits a random number of students to the school and enrols a new Instructor, runs the school, then removes
+        Instructors and Students who might leave the school, timing each phase. */
+        metrics.time(SimulationMetrics.Phase.ENROL_STUDENTS, this::enrolNewStudents);
+        metrics.time(SimulationMetrics.Phase.HIRE_INSTRUCTORS, this::enrolNewInstructor);
+        school.aDayAtSchool();
+        metrics.time(SimulationMetrics.Phase.INSTRUCTORS_LEAVING, this::instructorLeaving);
+        metrics.time(SimulationMetrics.Phase.STUDENTS_LEAVING, this::studentsLeaving);
+        metrics.endDay();
+        day++;
+    }
+
+    /**
+     * Runs the {@link School} for the {@code daysToRun} passed as parameter, printing out its status as specified by the
+     * {@code reportMode} (by default, the full status at the end of each day). This method overloads {@link #run()}.
+     *
+     * @param daysToRun         the number of days to run the school simulation for
+     */
+    public void run(int daysToRun) {
+        for (int i = 1; i <= daysToRun; i++) {
+            runDay(i == daysToRun);
+        }
+    }
+
+    /**
+     * Runs the {@link School} for one day (see {@link #run()}), then prints out its status as specified by the
+     * {@code reportMode}, dumps its metrics and saves its snapshot, if they are due on that day.
+     *
+     * @param lastDay           true if it is the last day of the run, when the final report, metrics and snapshot are due
+     */
+    public void runDay(boolean lastDay) {
+        run();
+
+        /* Streams out the full status of the school or its summary, depending on the report mode. If an I/O error
+        occurs it catches the IOException. */
+        try {
+            if ((reportMode == ReportMode.EVERY && day % reportInterval == 0) ||
+                    (reportMode == ReportMode.FINAL && lastDay)) {
+                reportOutput.write("Day: " + day + System.lineSeparator());
+                school.writeReport(reportOutput);
+                reportOutput.write(System.lineSeparator());
+                reportOutput.flush();
+            } else if (reportMode == ReportMode.SUMMARY && (day % reportInterval == 0 || lastDay)) {
+                reportOutput.write("Day: " + day + " - " + school.getSummary() + System.lineSeparator());
+                reportOutput.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Unable to print the status of the school!\n");
+        }
+
+        // Dumps the metrics of the school, if required. If an I/O error occurs it catches the IOException.
+        if (metricsOutput != null && (day % metricsInterval == 0 || lastDay)) {
+            try {
+                dumpMetrics();
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Unable to dump the metrics of the school!\n");
+            }
+        }
+
+        // Saves a snapshot of the school, if required. If an I/O error occurs it catches the IOException.
+        if (snapshotFileName != null && (day % snapshotInterval == 0 || lastDay)) {
+            try {
+                SchoolSnapshot.save(school, day, snapshotFileName);
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.err.println("Unable to save the snapshot of the school!\n");
+            }
+        }
+    }
+
+    /**
+     * Dumps the current {@link SimulationMetrics} of the school to the {@code metricsOutput}, as a JSON line or as a
+     * CSV row (writing the CSV header first, if it has not been written yet).
+     *
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    private void dumpMetrics() throws IOException {
+        SimulationMetrics metrics = school.getMetrics();
+        if (metricsAsJson) {
+            metrics.writeJsonLine(metricsOutput);
+        } else {
+            if (!metricsHeaderWritten) {
+                metrics.writeCsvHeader(metricsOutput);
+                metricsHeaderWritten = true;
+            }
+            metrics.writeCsvRow(metricsOutput);
+        }
+        metricsOutput.flush();
+    }
+
+    /**
+     * Simulates the possibility that up to 2 new students join the school.
+     */
+    public void enrolNewStudents() {
+
+        // Generates a random number between 0 and 3 to decide how many students will be admitted, then adds them.
+        int admittedStudents = random.nextInt(3);
+        school.getMetrics().add(SimulationMetrics.Counter.STUDENTS_ADMITTED, admittedStudents);
+
+        StudentStore studentStore = school.getStudentStore();
+        if (studentStore == null) {
+            for (int i = admittedStudents; i > 0; i--) {
+                school.add(personGenerator.createStudent());
+            }
+        } else {
+            personGenerator.createStudents(studentStore, admittedStudents);
+        }
+    }
+
+    /**
+     * Simulates the possibility that a new instructor joins the school.
+     */
+    public void enrolNewInstructor() {
+
+        // Simulates a 20% chance that a new Teacher will join the school.
+        if (probabilityDeterminer(20)) {
+            school.add(personGenerator.createInstructor(PersonType.TEACHER));
+            school.getMetrics().increment(SimulationMetrics.Counter.INSTRUCTORS_HIRED);
+        }
+
+        // Simulates a 10% chance that a new Demonstrator will join the school.
+        if (probabilityDeterminer(10)) {
+            school.add(personGenerator.createInstructor(PersonType.DEMONSTRATOR));
+            school.getMetrics().increment(SimulationMetrics.Counter.INSTRUCTORS_HIRED);
+        }
+
+        // Simulates a 5% chance that a new OOTrainer will join the school.
+        if (probabilityDeterminer(5)) {
+            school.add(personGenerator.createInstructor(PersonType.OO_TRAINER));
+            school.getMetrics().increment(SimulationMetrics.Counter.INSTRUCTORS_HIRED);
+        }
+
+        // Simulates a 5% chance that a new GUITrainer will join the school.
+        if (probabilityDeterminer(5)) {
+            school.add(personGenerator.createInstructor(PersonType.GUI_TRAINER));
+            school.getMetrics().increment(SimulationMetrics.Counter.INSTRUCTORS_HIRED);
+        }
+    }
+
+    /**
+     * Iterates over each school's {@code Instructor} and, if free, simulates the 20% possibility that they have to leave.
+     * If that is the case, removes the instructor from the school. All the leaving instructors are removed in a single
+     * pass.
+     */
+    public void instructorLeaving() {
+        int leavingInstructors = school.removeInstructorsIf(instructor ->
+                instructor.getAssignedCourses() == null && probabilityDeterminer(20));
+        school.getMetrics().add(SimulationMetrics.Counter.INSTRUCTOR_DEPARTURES, leavingInstructors);
+    }
+
+    /**
+     * Iterating over each {@code School}'s {@code Student}, removes graduated students and simulates the 5% possibility
+     * that a student who is not enrolled to any course leaves the school. All the leaving students are removed in a
+     * single pass.
+     */
+    public void studentsLeaving() {
+
+        // Fetches the set of all school Subjects indexes (useful for next operation).
+        SubjectSet allSubjectsCertificates = school.getSubjectIndexes();
+
+        /* For each student in the school, if has obtained the certificates for all subjects, will leave the school.
+        Otherwise, if the student does not enrol in any course, he or she has 5% chance of leaving the school. */
+        int leavingStudents = school.removeStudentsIf(student -> student.hasCertificates(allSubjectsCertificates) ||
+                (!school.isActive(student) && probabilityDeterminer(5)));
+
+        // Does the same for the students kept in the student store, if any.
+        StudentStore studentStore = school.getStudentStore();
+        if (studentStore != null) {
+            leavingStudents += studentStore.removeIf(row -> studentStore.hasCertificates(row, allSubjectsCertificates)
+                    || (studentStore.getEnrolledCount(row) == 0 && probabilityDeterminer(5)));
+        }
+        school.getMetrics().add(SimulationMetrics.Counter.STUDENT_DEPARTURES, leavingStudents);
+    }
+
+    /**
+     * Simulates an event, given a certain {@code probabilityPercentage} that it happens.
+     *
+     * @param probabilityPercentage         the probability that the event happens, in percentage (0 - 100)
+     * @return true if the event happens, false otherwise
+     */
+    public boolean probabilityDeterminer(double probabilityPercentage) {
+        if (probabilityPercentage > 100 || probabilityPercentage < 0) {
+            System.err.println("Please set a percentage value between 0 and 100.");
+            return false;
+        } else {
+            return (random.nextDouble() <= (probabilityPercentage / 100));
+        }
+    }
+
+    /**
+     * Administrator's class main method.
+     * Takes the name of the configuration file and runs the simulation for the specified number of days. The following
+     * options can be added after the number of days:
+     * <ul><li> {@code --seed=N} runs the simulation from the random seed N, making it reproducible.</li>
+     *     <li> {@code --report=MODE} reports the status of the school as specified by the {@link ReportMode}
+     *          (none, every, final or summary).</li>
+     *     <li> {@code --every=N} sets the number of days between two reports.</li>
+     *     <li> {@code --metrics=FILE} dumps the {@link SimulationMetrics} to FILE, as JSON lines if its name ends with
+     *          .json, as CSV rows otherwise.</li>
+     *     <li> {@code --metrics-every=N} sets the number of days between two dumps of the metrics.</li>
+     *     <li> {@code --jmx} exposes the metrics over JMX while the simulation runs.</li>
+     *     <li> {@code --parse-threads=N} parses the configuration file on N threads.</li>
+     *     <li> {@code --snapshot=FILE} saves a {@link SchoolSnapshot} of the school to FILE at the end of the run.</li>
+     *     <li> {@code --snapshot-every=N} also saves the snapshot every N days.</li>
+     *     <li> {@code --resume=FILE} resumes the simulation from the snapshot in FILE, instead of reading the
+     *          configuration file.</li>
+     *     <li> {@code --student-store} keeps the students in an off-heap {@link StudentStore}, and
+     *          {@code --student-store=DIR} in a store memory-mapped from files in DIR.</li>
+     *     <li> {@code --event-driven} only advances the courses starting or ending each day (see
+     *          {@link School#setEventDriven(boolean)}).</li>
+     *     <li> {@code --replicas=N} runs N independent replicas of the school instead, on
+     *          {@code --replica-threads=N} threads, and prints the statistics of their outcomes computed by the
+     *          {@link MonteCarloRunner}. The replicas keep no student store, snapshots or metrics files, so
+     *          {@code --student-store}, {@code --snapshot} and {@code --metrics} are rejected with them.</li></ul>
+     * When the configuration file describes more than one school, the schools are run concurrently by a
+     * {@link MultiSchoolSimulation}; each school then dumps its metrics and saves its snapshots to its own file, named
+     * after FILE with the number of the school before the extension (e.g. metrics-2.csv).
+     */
+    public static void main(String[] args) throws IOException {
+        // Reads the configuration file, on as many threads as requested, or resumes the school from a snapshot.
+        int parseThreads = 1;
+        String resumeFileName = null;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--parse-threads=")) {
+                parseThreads = Integer.parseInt(args[i].substring("--parse-threads=".length()));
+            } else if (args[i].startsWith("--resume=")) {
+                resumeFileName = args[i].substring("--resume=".length());
+            }
+        }
+        ArrayList<Administrator> administrators;
+        if (resumeFileName == null) {
+            SimulationUtility simulationUtility = new SimulationUtility();
+            simulationUtility.setup(args[0], parseThreads);
+            administrators = simulationUtility.getAdministrators();
+        } else {
+            SchoolSnapshot snapshot = SchoolSnapshot.load(resumeFileName);
+            Administrator administrator = new Administrator(snapshot.getSchool());
+            administrator.setDay(snapshot.getDay());
+            administrators = new ArrayList<>();
+            administrators.add(administrator);
+        }
+        if (administrators.isEmpty()) {
+            return;         // The configuration file could not be read.
+        }
+        MultiSchoolSimulation simulation = administrators.size() > 1 ? new MultiSchoolSimulation(administrators) : null;
+
+        String metricsFileName = null;
+        int metricsInterval = 1;
+        String snapshotFileName = null;
+        int snapshotInterval = Integer.MAX_VALUE;
+        String studentStoreDirectory = null;        // Empty for an off-heap store.
+        int replicas = 0;                           // 0 to run the simulation once, with its reports.
+        int replicaThreads = Runtime.getRuntime().availableProcessors();
+        long seed = new SplittableRandom().nextLong();
+
+        // Applies the options that follow the number of days.
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].startsWith("--seed=")) {
+                seed = Long.parseLong(args[i].substring("--seed=".length()));
+                if (simulation == null) {
+                    administrators.get(0).setSeed(seed);
+                } else {
+                    simulation.setSeed(seed);
+                }
+            } else if (args[i].startsWith("--report=")) {
+                ReportMode reportMode = ReportMode.fromName(args[i].substring("--report=".length()));
+                if (simulation == null) {
+                    administrators.get(0).setReportMode(reportMode);
+                } else {
+                    simulation.setReportMode(reportMode);
+                }
+            } else if (args[i].startsWith("--every=")) {
+                int reportInterval = Integer.parseInt(args[i].substring("--every=".length()));
+                if (simulation == null) {
+                    administrators.get(0).setReportInterval(reportInterval);
+                } else {
+                    simulation.setReportInterval(reportInterval);
+                }
+            } else if (args[i].startsWith("--metrics=")) {
+                metricsFileName = args[i].substring("--metrics=".length());
+            } else if (args[i].startsWith("--metrics-every=")) {
+                metricsInterval = Integer.parseInt(args[i].substring("--metrics-every=".length()));
+            } else if (args[i].startsWith("--snapshot=")) {
+                snapshotFileName = args[i].substring("--snapshot=".length());
+            } else if (args[i].startsWith("--snapshot-every=")) {
+                snapshotInterval = Integer.parseInt(args[i].substring("--snapshot-every=".length()));
+            } else if (args[i].equals("--student-store")) {
+                studentStoreDirectory = "";
+            } else if (args[i].startsWith("--student-store=")) {
+                studentStoreDirectory = args[i].substring("--student-store=".length());
+            } else if (args[i].equals("--event-driven")) {
+                for (Administrator administrator : administrators) {
+                    administrator.getSchool().setEventDriven(true);
+                }
+            } else if (args[i].startsWith("--replicas=")) {
+                replicas = Integer.parseInt(args[i].substring("--replicas=".length()));
+            } else if (args[i].startsWith("--replica-threads=")) {
+                replicaThreads = Integer.parseInt(args[i].substring("--replica-threads=".length()));
+            } else if (args[i].startsWith("--parse-threads=") || args[i].startsWith("--resume=")) {
+                continue;       // Already applied when reading the configuration file.
+            } else if (args[i].equals("--jmx")) {
+                for (Administrator administrator : administrators) {
+                    administrator.getSchool().getMetrics().register(administrator.getSchool().getName());
+                }
+            } else {
+                throw new InvalidInputException("Unknown option: " + args[i] + "\n");
+            }
+        }
+
+        // Runs the replicas of each school instead of the simulation itself, if required.
+        if (replicas > 0) {
+            if (studentStoreDirectory != null || snapshotFileName != null || metricsFileName != null) {
+                throw new InvalidInputException("The --student-store, --snapshot and --metrics options cannot be " +
+                        "used with --replicas.\n");
+            }
+            Writer resultsOutput = new BufferedWriter(new OutputStreamWriter(System.out));
+            SplittableRandom schoolSeeds = new SplittableRandom(seed);
+            for (Administrator administrator : administrators) {
+                new MonteCarloRunner(administrator.getSchool()).run(replicas, Integer.parseInt(args[1]), replicaThreads,
+                        administrators.size() > 1 ? schoolSeeds.nextLong() : seed, resultsOutput);
+            }
+            return;
+        }
+
+        ArrayList<Writer> metricsOutputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < administrators.size(); i++) {
+                Administrator administrator = administrators.get(i);
+                if (snapshotFileName != null) {
+                    administrator.setSnapshotOutput(schoolFileName(snapshotFileName, i, simulation), snapshotInterval);
+                }
+                if (studentStoreDirectory != null) {
+                    School school = administrator.getSchool();
+                    int subjectCount = Math.max(1, school.getPrerequisiteGraph().getIndexCount());
+                    Path directory = null;
+                    if (!studentStoreDirectory.isEmpty()) {
+                        directory = Paths.get(studentStoreDirectory);
+                        if (simulation != null) {
+                            directory = Files.createDirectories(directory.resolve("school-" + (i + 1)));
+                        }
+                    }
+                    school.setStudentStore(new StudentStore(subjectCount, school.getMaxEnrollableCourses(),
+                            directory));
+                }
+                if (metricsFileName != null) {
+                    Writer metricsOutput = new BufferedWriter(new FileWriter(schoolFileName(metricsFileName, i,
+                            simulation)));
+                    metricsOutputs.add(metricsOutput);
+                    administrator.setMetricsOutput(metricsOutput, metricsInterval, metricsFileName.endsWith(".json"));
+                }
+            }
+
+            // Runs the simulation, dumping the metrics to the specified files (if any).
+            if (simulation == null) {
+                administrators.get(0).run(Integer.parseInt(args[1]));
+            } else {
+                simulation.run(Integer.parseInt(args[1]));
+            }
+        } finally {
+            for (Writer metricsOutput : metricsOutputs) {
+                metricsOutput.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the file a school of the simulation writes to: the {@code fileName} passed as parameter when
+     * there is only one school, otherwise the {@code fileName} with the number of the school before its extension.
+     *
+     * @param fileName          the name of the file, as passed on the command line
+     * @param school            the index of the school, in the order of the configuration file
+     * @param simulation        the simulation running the schools, or null if there is only one school
+     * @return the name of the file of the school
+     */
+    private static String schoolFileName(String fileName, int school, MultiSchoolSimulation simulation) {
+        if (simulation == null) {
+            return fileName;
+        }
+        int extension = fileName.lastIndexOf('.');
+        if (extension <= Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'))) {
+            extension = fileName.length();
+        }
+        return fileName.substring(0, extension) + "-" + (school + 1) + fileName.substring(extension);
+    }
+}
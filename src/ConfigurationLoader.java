@@ -0,0 +1,576 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class defines a {@code ConfigurationLoader}, the tool used by {@link SimulationUtility#setup(String)} to read
+ * very large configuration files quickly.
+ * The file is read through a {@link FileChannel} into a large byte buffer, and each line is parsed in a single pass over
+ * its bytes: the class name is looked up in a precomputed table (by length, ignoring case) and the properties are split
+ * at each comma and parsed in place, without regular expressions, repeated splits or intermediate strings other than
+ * the names and descriptions themselves. Each line is parsed into a record (a {@link SchoolLine}, a {@link Subject} or
+ * a {@link Person}), which is then committed to the school created through the {@link SimulationUtility}.
+ * <p>
+ * With {@link #load(String, int)} the lines can also be parsed on several threads: the file is split into chunks at
+ * line boundaries, the chunks are parsed into lists of records on a {@link ForkJoinPool}, and the records are committed
+ * in the original order of the lines, so that the outcome is the same as the one of a serial load.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class ConfigurationLoader {
+    private static final int BUFFER_SIZE = 1 << 20;         // The initial size of the read buffer (1 MiB).
+    private static final int CHUNK_SIZE = 4 << 20;          // The size of the chunks parsed in parallel (4 MiB).
+    private static final int CHUNKS_PER_THREAD = 2;         // The chunks each thread can have in flight.
+    private static final int MAX_FIELDS = 8;                // The maximum number of properties stored for a line.
+
+    // The types of object a configuration line can describe: the people take the types from FIRST_PERSON onwards.
+    private static final int UNKNOWN = -1;
+    private static final int SCHOOL = 0;
+    private static final int SUBJECT = 1;
+    private static final int FIRST_PERSON = 2;
+
+    /** The types of person, indexed by their type minus {@code FIRST_PERSON}. */
+    private static final PersonType[] PERSON_TYPES = PersonType.values();
+
+    /** The lower-case class names, indexed by their type. */
+    private static final String[] CLASS_NAMES = new String[FIRST_PERSON + PERSON_TYPES.length];
+
+    /** The lookup table of the class names: for each length, the types of the class names of that length. */
+    private static final int[][] CLASS_TYPES_BY_LENGTH;
+
+    static {
+        CLASS_NAMES[SCHOOL] = "school";
+        CLASS_NAMES[SUBJECT] = "subject";
+        for (PersonType personType : PERSON_TYPES) {
+            CLASS_NAMES[FIRST_PERSON + personType.ordinal()] = personType.getClassName().toLowerCase();
+        }
+
+        int maxLength = 0;
+        for (String className : CLASS_NAMES) {
+            maxLength = Math.max(maxLength, className.length());
+        }
+        CLASS_TYPES_BY_LENGTH = new int[maxLength + 1][0];
+        for (int type = 0; type < CLASS_NAMES.length; type++) {
+            int[] types = CLASS_TYPES_BY_LENGTH[CLASS_NAMES[type].length()];
+            int[] newTypes = new int[types.length + 1];
+            System.arraycopy(types, 0, newTypes, 0, types.length);
+            newTypes[types.length] = type;
+            CLASS_TYPES_BY_LENGTH[CLASS_NAMES[type].length()] = newTypes;
+        }
+    }
+
+    private SimulationUtility simulationUtility;            // The tool creating the objects described by the lines.
+    private int[] fieldStarts;                              // The index of the first byte of each property of a line.
+    private int[] fieldEnds;                                // The index after the last byte of each property of a line.
+
+    /**
+     * Creates a new {@code ConfigurationLoader} object that creates the objects it reads through the
+     * {@link SimulationUtility} passed as parameter.
+     *
+     * @param simulationUtility     the tool creating the objects described by the configuration file
+     */
+    public ConfigurationLoader(SimulationUtility simulationUtility) {
+        this.simulationUtility = simulationUtility;
+        fieldStarts = new int[MAX_FIELDS];
+        fieldEnds = new int[MAX_FIELDS];
+    }
+
+    /**
+     * Reads the configuration file passed as parameter one buffer at a time and, for each line, creates an object of
+     * the specified class with the specified properties.
+     *
+     * @param configurationFileName     the configuration file name (with .txt)
+     * @throws IOException              If the file does not exist or an I/O error occurs while reading it
+     * @throws InvalidInputException    If a line of the file is not well formatted or incomplete
+     */
+    public void load(String configurationFileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(configurationFileName), StandardOpenOption.READ)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length = 0;             // The number of bytes in the buffer.
+
+            while (true) {
+                int bytesRead = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+                if (bytesRead < 0) {
+
+                    // Parses the last line, if the file does not end with a line terminator.
+                    if (length > 0) {
+                        parseLine(buffer, 0, length);
+                    }
+                    return;
+                }
+
+                // Parses all the complete lines in the buffer.
+                int lineStart = 0;
+                for (int i = length; i < length + bytesRead; i++) {
+                    if (buffer[i] == '\n') {
+                        parseLine(buffer, lineStart, i);
+                        lineStart = i + 1;
+                    }
+                }
+                length += bytesRead;
+
+                /* Moves the incomplete last line to the beginning of the buffer, growing the buffer if the line does not
+                fit in it. */
+                length -= lineStart;
+                System.arraycopy(buffer, lineStart, buffer, 0, length);
+                if (length == buffer.length) {
+                    byte[] newBuffer = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, newBuffer, 0, length);
+                    buffer = newBuffer;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the configuration file passed as parameter one chunk at a time and parses the chunks on {@code parallelism}
+     * threads. The records parsed from each chunk are committed to the school in the original order of the lines; as
+     * every other line depends on it, the school line must be the first line of the file.
+     *
+     * @param configurationFileName     the configuration file name (with .txt)
+     * @param parallelism               the number of threads parsing the file (1 to parse it serially)
+     * @throws IOException              If the file does not exist or an I/O error occurs while reading it
+     * @throws InvalidInputException    If the first line is not a school line, or if a line of the file is not well
+     *                                  formatted or incomplete
+     */
+    public void load(String configurationFileName, int parallelism) throws IOException {
+        if (parallelism <= 1) {
+            load(configurationFileName);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        ArrayDeque<Future<ArrayList<Object>>> chunks = new ArrayDeque<>();     // The chunks being parsed, in order.
+        try (FileChannel channel = FileChannel.open(Paths.get(configurationFileName), StandardOpenOption.READ)) {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int length = 0;             // The number of bytes in the buffer.
+            boolean firstChunk = true;
+
+            while (true) {
+                int bytesRead = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+                boolean lastChunk = bytesRead < 0;
+                if (!lastChunk) {
+                    length += bytesRead;
+                    if (length < buffer.length) {
+                        continue;
+                    }
+                }
+
+                // Cuts the chunk after its last line terminator (or at the end of the file).
+                int chunkEnd = length;
+                if (!lastChunk) {
+                    while (chunkEnd > 0 && buffer[chunkEnd - 1] != '\n') {
+                        chunkEnd--;
+                    }
+
+                    // If not even one line fits in the buffer, grows it and keeps reading.
+                    if (chunkEnd == 0) {
+                        byte[] newBuffer = new byte[buffer.length * 2];
+                        System.arraycopy(buffer, 0, newBuffer, 0, length);
+                        buffer = newBuffer;
+                        continue;
+                    }
+                }
+
+                // Parses and commits the school line straight away, as all the other lines depend on it.
+                int chunkStart = 0;
+                if (firstChunk && chunkEnd > 0) {
+                    int lineEnd = 0;
+                    while (lineEnd < chunkEnd && buffer[lineEnd] != '\n') {
+                        lineEnd++;
+                    }
+                    Object record = parseRecord(buffer, 0, lineEnd);
+                    if (!(record instanceof SchoolLine)) {
+                        throw new InvalidInputException(SimulationUtility.SCHOOL_MISSING_ERROR);
+                    }
+                    commit(record);
+                    chunkStart = Math.min(lineEnd + 1, chunkEnd);
+                }
+                firstChunk = false;
+
+                // Submits the chunk, first committing the oldest one if too many chunks are in flight.
+                if (chunkStart < chunkEnd) {
+                    if (chunks.size() >= parallelism * CHUNKS_PER_THREAD) {
+                        commitChunk(chunks.removeFirst());
+                    }
+                    byte[] chunk = buffer;
+                    int start = chunkStart;
+                    int end = chunkEnd;
+                    chunks.addLast(pool.submit(() -> new ConfigurationLoader(simulationUtility).parseChunk(chunk,
+                            start, end)));
+                }
+                if (lastChunk) {
+                    break;
+                }
+
+                // Moves the incomplete last line into a new buffer, as the chunk submitted is still being parsed.
+                byte[] newBuffer = new byte[buffer.length];
+                System.arraycopy(buffer, chunkEnd, newBuffer, 0, length - chunkEnd);
+                length -= chunkEnd;
+                buffer = newBuffer;
+            }
+
+            while (!chunks.isEmpty()) {
+                commitChunk(chunks.removeFirst());
+            }
+        } finally {
+            for (Future<ArrayList<Object>> chunk : chunks) {
+                chunk.cancel(false);
+            }
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Parses all the lines of a chunk of the configuration file into records, without committing them.
+     *
+     * @param bytes                     the bytes containing the chunk
+     * @param start                     the index of the first byte of the chunk
+     * @param end                       the index after the last byte of the chunk
+     * @return the records parsed from the lines of the chunk, in order (null for unknown class names)
+     * @throws InvalidInputException    If a line of the chunk is not well formatted or incomplete
+     */
+    private ArrayList<Object> parseChunk(byte[] bytes, int start, int end) {
+        ArrayList<Object> records = new ArrayList<>();
+        int lineStart = start;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == '\n') {
+                records.add(parseRecord(bytes, lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < end) {
+            records.add(parseRecord(bytes, lineStart, end));
+        }
+        return records;
+    }
+
+    /**
+     * Waits for a chunk to be parsed and commits its records, in order. If the chunk could not be parsed, rethrows the
+     * exception thrown while parsing it.
+     *
+     * @param chunk                     the chunk being parsed
+     * @throws InvalidInputException    If a line of the chunk is not well formatted or incomplete
+     */
+    private void commitChunk(Future<ArrayList<Object>> chunk) {
+        ArrayList<Object> records;
+        try {
+            records = chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the configuration file.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        for (Object record : records) {
+            commit(record);
+        }
+    }
+
+    /**
+     * Parses a "[Class]:[property,property,...]" line of the configuration file and creates the object it describes.
+     *
+     * @param bytes                     the bytes containing the line
+     * @param start                     the index of the first byte of the line
+     * @param end                       the index after the last byte of the line
+     * @throws InvalidInputException    If the line is not well formatted or incomplete
+     */
+    public void parseLine(byte[] bytes, int start, int end) {
+        commit(parseRecord(bytes, start, end));
+    }
+
+    /**
+     * Commits a record parsed from a line of the configuration file: creates the school of a {@link SchoolLine}, or adds
+     * a {@link Subject} or a {@link Person} to the school.
+     *
+     * @param record                    the record to commit (null for unknown class names, which are ignored)
+     * @throws InvalidInputException    If a subject or a person is committed before the school has been created
+     */
+    private void commit(Object record) {
+        if (record instanceof SchoolLine) {
+            SchoolLine schoolLine = (SchoolLine) record;
+            simulationUtility.createSchool(schoolLine.name, schoolLine.maxEnrollableCourses,
+                    schoolLine.maxAssignableCourses);
+            return;
+        }
+        if (record == null) {
+            return;
+        }
+        if (simulationUtility.getAdministrator() == null) {
+            throw new InvalidInputException(SimulationUtility.SCHOOL_MISSING_ERROR);
+        }
+        School school = simulationUtility.getAdministrator().getSchool();
+        if (record instanceof Subject) {
+            school.add((Subject) record);
+        } else if (record instanceof Student) {
+            school.add((Student) record);
+        } else if (record instanceof Instructor) {
+            school.add((Instructor) record);
+        }
+    }
+
+    /**
+     * Parses a "[Class]:[property,property,...]" line of the configuration file into the record it describes.
+     *
+     * @param bytes                     the bytes containing the line
+     * @param start                     the index of the first byte of the line
+     * @param end                       the index after the last byte of the line
+     * @return a {@link SchoolLine}, a {@link Subject} or a {@link Person}, or null for unknown class names
+     * @throws InvalidInputException    If the line is not well formatted or incomplete
+     */
+    private Object parseRecord(byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+
+        // Finds the colon and the commas of the line, in a single pass.
+        int colon = -1;
+        int fields = 0;
+        int fieldStart = 0;
+        for (int i = start; i < end; i++) {
+            byte b = bytes[i];
+            if (b == ':') {
+                if (colon >= 0) {
+                    throw new InvalidInputException(SimulationUtility.LINE_FORMAT_ERROR);
+                }
+                colon = i;
+                fieldStart = i + 1;
+            } else if (b == ',' && colon >= 0) {
+                fields = addField(fields, fieldStart, i);
+                fieldStart = i + 1;
+            }
+        }
+        if (colon < 0 || colon == end - 1) {
+            throw new InvalidInputException(SimulationUtility.LINE_FORMAT_ERROR);
+        }
+        fields = addField(fields, fieldStart, end);
+
+        // As String.split() does, ignores the empty properties at the end of the line.
+        while (fields > 0 && fields <= MAX_FIELDS && fieldStarts[fields - 1] == fieldEnds[fields - 1]) {
+            fields--;
+        }
+
+        int type = classType(bytes, start, colon);
+        if (type == SCHOOL) {
+            return createSchool(bytes, fields);
+        } else if (type == SUBJECT) {
+            return createSubject(bytes, fields);
+        } else {
+            return createPerson(type, bytes, fields);
+        }
+    }
+
+    /**
+     * Records the bounds of a property of the line being parsed.
+     *
+     * @param fields        the number of properties recorded so far
+     * @param start         the index of the first byte of the property
+     * @param end           the index after the last byte of the property
+     * @return the number of properties of the line, including this one
+     */
+    private int addField(int fields, int start, int end) {
+        if (fields < MAX_FIELDS) {
+            fieldStarts[fields] = start;
+            fieldEnds[fields] = end;
+        }
+        return fields + 1;
+    }
+
+    /**
+     * Looks up the type of object described by the class name passed as parameter, ignoring its case.
+     *
+     * @param bytes         the bytes containing the class name
+     * @param start         the index of the first byte of the class name
+     * @param end           the index after the last byte of the class name
+     * @return the type of object, or {@code UNKNOWN} if the class name is not known
+     */
+    private static int classType(byte[] bytes, int start, int end) {
+        int length = end - start;
+        if (length >= CLASS_TYPES_BY_LENGTH.length) {
+            return UNKNOWN;
+        }
+        for (int type : CLASS_TYPES_BY_LENGTH[length]) {
+            String className = CLASS_NAMES[type];
+            int i = 0;
+
+            // Setting the 0x20 bit turns upper-case ASCII letters into lower-case ones.
+            while (i < length && (bytes[start + i] | 0x20) == className.charAt(i)) {
+                i++;
+            }
+            if (i == length) {
+                return type;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Creates the {@link SchoolLine} described by the properties of the line being parsed.
+     *
+     * @param bytes                     the bytes containing the line
+     * @param fields                    the number of properties of the line
+     * @return the school line
+     * @throws InvalidInputException    If there are not 1 to 3 properties
+     */
+    private SchoolLine createSchool(byte[] bytes, int fields) {
+        if (fields < 1 || fields > 3) {
+            throw new InvalidInputException(SimulationUtility.SCHOOL_FORMAT_ERROR);
+        }
+        String name = string(bytes, 0);
+        int maxEnrollableCourses = fields >= 2 ? parseInt(bytes, fieldStarts[1], fieldEnds[1]) : 1;
+        int maxAssignableCourses = fields == 3 ? parseInt(bytes, fieldStarts[2], fieldEnds[2]) : 1;
+        return new SchoolLine(name, maxEnrollableCourses, maxAssignableCourses);
+    }
+
+    /**
+     * Creates the {@link Subject} described by the properties of the line being parsed.
+     *
+     * @param bytes                     the bytes containing the line
+     * @param fields                    the number of properties of the line
+     * @return the subject
+     * @throws InvalidInputException    If there are not 4 to 7 properties, or if the capacity or lead time is not valid
+     */
+    private Subject createSubject(byte[] bytes, int fields) {
+        if (fields < 4 || fields > 7) {
+            throw new InvalidInputException(SimulationUtility.SUBJECT_FORMAT_ERROR);
+        }
+        String description = string(bytes, 0);
+        int id = parseInt(bytes, fieldStarts[1], fieldEnds[1]);
+        int specialism = parseInt(bytes, fieldStarts[2], fieldEnds[2]);
+        int duration = parseInt(bytes, fieldStarts[3], fieldEnds[3]);
+
+        Subject subject = new Subject(id, specialism, duration);
+        subject.setDescription(description);
+
+        // If there are prerequisites, parses the subjectIDs separated by "-" (the property is left empty if there are none).
+        if (fields >= 5 && fieldStarts[4] < fieldEnds[4]) {
+            int start = fieldStarts[4];
+            int end = fieldEnds[4];
+            for (int i = start; i <= end; i++) {
+                if (i == end || bytes[i] == '-') {
+                    subject.addPrerequisites(parseInt(bytes, start, i));
+                    start = i + 1;
+                }
+            }
+        }
+        if (fields >= 6) {
+            subject.setCapacity(parseInt(bytes, fieldStarts[5], fieldEnds[5]));
+        }
+        if (fields == 7) {
+            subject.setLeadTime(parseInt(bytes, fieldStarts[6], fieldEnds[6]));
+        }
+        return subject;
+    }
+
+    /**
+     * Creates the {@link Person} described by the properties of the line being parsed.
+     *
+     * @param type                      the type of person to create
+     * @param bytes                     the bytes containing the line
+     * @param fields                    the number of properties of the line
+     * @return the person, or null if the type is unknown
+     * @throws InvalidInputException    If there are not 3 properties
+     */
+    private Person createPerson(int type, byte[] bytes, int fields) {
+        if (fields != 3) {
+            throw new InvalidInputException(SimulationUtility.PERSON_FORMAT_ERROR);
+        }
+        String name = string(bytes, 0);
+        char gender = fieldStarts[1] == fieldEnds[1] ? ' ' : (bytes[fieldStarts[1]] >= 0 ?
+                (char) bytes[fieldStarts[1]] : string(bytes, 1).charAt(0));
+        int age = parseInt(bytes, fieldStarts[2], fieldEnds[2]);
+
+        return type < FIRST_PERSON ? null : PERSON_TYPES[type - FIRST_PERSON].create(name, gender, age);
+    }
+
+    /**
+     * Decodes a property of the line being parsed as a UTF-8 string.
+     *
+     * @param bytes         the bytes containing the line
+     * @param field         the index of the property
+     * @return the property, as a string
+     */
+    private String string(byte[] bytes, int field) {
+        return new String(bytes, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the decimal integer in the bytes passed as parameter, as {@link Integer#parseInt(String)} does.
+     *
+     * @param bytes                     the bytes containing the integer
+     * @param start                     the index of the first byte of the integer
+     * @param end                       the index after the last byte of the integer
+     * @return the parsed integer
+     * @throws NumberFormatException    If the bytes do not contain a valid integer
+     */
+    private static int parseInt(byte[] bytes, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == end) {
+            throw numberFormatException(bytes, start, end);
+        }
+
+        // Accumulates the value as a negative number, so that Integer.MIN_VALUE can be parsed too.
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int value = 0;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value < limit / 10 || value * 10 < limit + digit) {
+                throw numberFormatException(bytes, start, end);
+            }
+            value = value * 10 - digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /**
+     * Creates the {@link NumberFormatException} thrown when the bytes passed as parameter are not a valid integer.
+     *
+     * @param bytes         the bytes containing the invalid integer
+     * @param start         the index of the first byte of the invalid integer
+     * @param end           the index after the last byte of the invalid integer
+     * @return the exception to throw
+     */
+    private static NumberFormatException numberFormatException(byte[] bytes, int start, int end) {
+        return new NumberFormatException("For input string: \"" +
+                new String(bytes, start, end - start, StandardCharsets.UTF_8) + "\"");
+    }
+
+    /**
+     * The record parsed from a school line of the configuration file: the properties of the {@link School} to create.
+     */
+    private static class SchoolLine {
+        private final String name;                      // The name of the school.
+        private final int maxEnrollableCourses;         // The maximum number of courses a student can enrol in.
+        private final int maxAssignableCourses;         // The maximum number of courses an instructor can teach.
+
+        /**
+         * Creates a new {@code SchoolLine} record with the properties passed as parameters.
+         *
+         * @param name                      the name of the school
+         * @param maxEnrollableCourses      the maximum number of courses that a student can enrol in
+         * @param maxAssignableCourses      the maximum number of courses that an Instructor can teach
+         */
+        private SchoolLine(String name, int maxEnrollableCourses, int maxAssignableCourses) {
+            this.name = name;
+            this.maxEnrollableCourses = maxEnrollableCourses;
+            this.maxAssignableCourses = maxAssignableCourses;
+        }
+    }
+}
@@ -1,267 +1,589 @@
-import java.util.ArrayList;
-
-/**
- * This class defines a {@code Course} object which is a school course about a specific {@link Subject}.
- * It provides all the properties and methods necessary to manage a Course in the bigger context of the {@code School}.
- * A {@code Course} object contains all the properties getters and setters, and methods to enroll a {@link Student},
- * assign an {@link Instructor}, get the size of the course, let the course advance for a day, and pretty-print all
- * course's details.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class Course {
-    private Subject subject;                            // The subject associated with the course.
-    private int daysUntilStarts;                        // The number of days until the course starts.
-    private int daysToRun;                              // The number of days that the course still has to run.
-    private int status;                                 // The status of the course.
-    private boolean courseCancelled;                    // T if the course has been cancelled, F otherwise.
-    private Instructor courseInstructor;                // The Instructor of the course.
-    private ArrayList<Student> enrolledStudents;        // The collection of students enrolled to this course.
-
-    /**
-     * Creates a {@code Course} object and initializes the {@code subject}, {@code daysUntilStarts}, {@code daysToRun}
-     * and {@code enrolledStudents} properties using the given parameters.
-     *
-     * @param subject                   the subject associated with the course
-     * @param daysUntilStarts           the number of days until the course starts
-     * @throws InvalidInputException    If the number of days until the course starts is not a positive integer
-     */
-    public Course(Subject subject, int daysUntilStarts) {
-        if (daysUntilStarts < 0) {
-            throw new InvalidInputException("The number of days until the course starts must be greater or equal to 0");
-        } else {
-            this.subject = subject;
-            this.daysUntilStarts = daysUntilStarts;
-            daysToRun = subject.getDuration();
-            enrolledStudents = new ArrayList<>();
-        }
-    }
-
-    /**
-     * Course's {@code Subject} accessor method.
-     *
-     * @return the subject associated with the course
-     */
-    public Subject getSubject() {
-        return subject;
-    }
-
-    /**
-     * Course's {@code status} accessor method.
-     * If the course has not started, then returns the negative of the number of days until the course starts.
-     * If the course is currently running, then returns the number of days left until the course finishes.
-     * If the course has finished, then returns 0.
-     *
-     * @return the status of the course
-     */
-    public int getStatus() {
-        if (daysUntilStarts > 0) {
-            status = -daysUntilStarts;
-            return status;
-        } else if (daysUntilStarts == 0) {
-            status = daysToRun;
-            return status;
-        } else {
-            return 0;
-        }
-    }
-
-    /**
-     * Returns whether or not the course has been cancelled.
-     *
-     * @return true if the course has been cancelled, false otherwise
-     */
-    public boolean isCancelled() {
-        return courseCancelled;
-    }
-
-    /**
-     * Tries to assign the {@code Instructor} passed as parameter to this course.
-     *
-     * @param instructor        the instructor we want to set for the course
-     * @return true if the instructor can teach the course, false otherwise
-     */
-    public boolean setInstructor(Instructor instructor) {
-        if (instructor.canTeach(getSubject())) {
-            courseInstructor = instructor;
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    /**
-     * Course's {@code Instructor} accessor method.
-     *
-     * @return the instructor of the course
-     */
-    public Instructor getInstructor() {
-        return courseInstructor;
-    }
-
-    /**
-     * Returns whether or not the course has an instructor
-     *
-     * @return true if the course has an instructor, false otherwise
-     */
-    public boolean hasInstructor() {
-        return courseInstructor != null;
-    }
-
-    /**
-     * Adds the {@code Student} object passed as parameter to the collection of {@code enrolledStudents}.
-     *
-     * @param student       the student to enrol
-     * @return false <ul><li> if the course is full (each course has a maximum of 3 students) </li>
-     *               <li> or if it has already started </li>
-     *               <li> or if the student has already graduated from that course </li>
-     *               <li> or if the student has not the prerequisites for the subject taught in the course </li> </ul>
-     *         true  <ul><li> otherwise </li></ul>
-     */
-    public boolean enrolStudent(Student student) {
-        if (getSize() >= 3 || getStatus() > 0 || student.hasCertificate(getSubject()) ||
-                !student.getCertificates().containsAll(getSubject().getPrerequisites())) {
-            return false;
-        } else {
-            enrolledStudents.add(student);
-            student.addAttendedCourse(this);
-            return true;
-        }
-    }
-
-    /**
-     * Returns an array containing all the students enrolled in the course.
-     *
-     * @return the Student[] array of students enrolled in the course
-     */
-    public Student[] getStudents() {
-        return enrolledStudents.toArray(new Student[0]);
-    }
-
-    /**
-     * Returns the array list of all the students enrolled in the course.
-     *
-     * @return the Student array list of students enrolled in the course
-     */
-    public ArrayList<Student> getStudentsArrayList() {
-        return enrolledStudents;
-    }
-
-    /**
-     * Returns the course size.
-     *
-     * @return the number of students enrolled in the course
-     */
-    public int getSize() {
-        return enrolledStudents.size();
-    }
-
-
-    /**
-     * Advances one day for the course.
-     * It reduces by one the {@code daysUntilStarts} if the course has not started, or the {@code daysToRun} if it has
-     * started. It also:
-     * <ul><li> Cancels the course if it is starting without any instructor or students, releasing the instructor (if any)
-     *          and the students (if any) from the course.</li>
-     *     <li> If the course finishes, then issues the certificate for the course’s subject to all the students in
-     *          the course and unassign the instructor from the course.</li></ul>
-     */
-    public void aDayPasses() {
-        if (daysUntilStarts > 0) {
-            daysUntilStarts--;
-
-            /* Cancels the course if it is starting without any instructor or students, releasing the instructor (if any)
-            and the students (if any) from the course. */
-            if ((daysUntilStarts == 0) && (getInstructor() == null || getSize() == 0)) {
-                courseCancelled = true;
-
-                if (courseInstructor != null) {
-                   courseInstructor.unassignCourse(this);
-                }
-
-                for (Student student : enrolledStudents) {
-                    student.removeAttendedCourse(this);
-                }
-                enrolledStudents.clear();
-            }
-        } else if (daysUntilStarts == 0 && daysToRun > 0) {
-            daysToRun--;
-
-            /* If the course finishes, then issues the certificate for the course’s subject to all the students in
-            the course and unassign the instructor from the course. */
-            if (daysToRun == 0) {
-                for (int i = 0; i < enrolledStudents.size(); i++) {
-                    Student student = enrolledStudents.toArray(new Student[0])[i];
-                    student.graduate(getSubject());
-                    student.removeAttendedCourse(this);
-                }
-                enrolledStudents.clear();
-
-                /* To avoid NullPointerException unassign the course from the instructor and the instructor from
-                the course only if the course has one. */
-                if (courseInstructor != null) {
-                    courseInstructor.unassignCourse(this);
-                    courseInstructor = null;
-                }
-            }
-        }
-    }
-
-    /**
-     * Returns a pretty-print string of the {@code Course}, containing all its details.
-     *
-     * @return a table-formatted string containing the course's subject, status, instructor and enrolled students
-     */
-    @Override
-    public String toString() {
-        String statusToPrint;                           // Stores the status of the course
-        String courseDetails = "";                      // Stores the details of the course in a table-formatted string.
-
-        if (isCancelled()) {
-            statusToPrint = "Course cancelled!";
-            courseDetails += String.format("%-30s %25s%n", getSubject().getDescription(), statusToPrint);
-        } else if (getStatus() == 0) {
-            statusToPrint = "Course finished!";
-            courseDetails += String.format("%-30s %25s%n", getSubject().getDescription(), statusToPrint);
-        } else {
-
-            /* Depending whether the the course has started or not, sets the variable statusToPrint to contain the status
-            of the course. Then adds the description and the status to the courseDetails table-formatted string. */
-            if (getStatus() < 0) {
-                statusToPrint = (-getStatus()) + " day(s) to start";
-            } else {
-                statusToPrint = getStatus() + " day(s) to the end";
-            }
-            courseDetails += String.format("%-30s %25s", getSubject().getDescription(), statusToPrint);
-
-            // If the course has an Instructor, add it to the table-formatted string.
-            if (!hasInstructor()) {
-                courseDetails += String.format("%15s", "N/A");
-            } else {
-                courseDetails += String.format("%15s", getInstructor().getName());
-            }
-
-            // If present, adds in column enrolled students' names to the enrolled students column of courseDetails.
-            if (enrolledStudents.size() == 0) {
-                courseDetails += "\n\n";
-            } else {
-                StringBuilder courseDetailsBuilder = new StringBuilder(courseDetails);
-                for (int i = 0; i < getSize(); i++) {
-                    String studentName = getStudents()[i].getName();
-                    if (i == 0 && getSize() == 1) {
-                        courseDetailsBuilder.append(String.format("%26s%n%n", studentName));
-                    } else if (i == 0) {
-                        courseDetailsBuilder.append(String.format("%26s%n", studentName));
-                    } else if (i == getSize() - 1) {
-                        courseDetailsBuilder.append(String.format("%97s%n%n", studentName));
-                    } else {
-                        courseDetailsBuilder.append(String.format("%97s%n", studentName));
-                    }
-                }
-                courseDetails = courseDetailsBuilder.toString();
-            }
-        }
-        return courseDetails;
-    }
-}
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class defines a {@code Course} object which is a school course about a specific {@link Subject}.
+ * It provides all the properties and methods necessary to manage a Course in the bigger context of the {@code School}.
+ * A {@code Course} object contains all the properties getters and setters, and methods to enroll a {@link Student},
+ * assign an {@link Instructor}, get the size of the course, let the course advance for a day, and pretty-print all
+ * course's details.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class Course {
+    private Subject subject;                            // The subject associated with the course.
+    private int daysUntilStarts;                        // The number of days until the course starts.
+    private int daysToRun;                              // The number of days that the course still has to run.
+    private int status;                                 // The status of the course.
+    private boolean courseCancelled;                    // T if the course has been cancelled, F otherwise.
+    private Instructor courseInstructor;                // The Instructor of the course.
+    private LinkedHashSet<Student> enrolledStudents;    // The students enrolled to this course, in enrolment order.
+    private Set<Student> enrolledStudentsView;          // The read-only view of enrolledStudents returned to callers.
+    private School school;                              // The school the course belongs to (null if not added yet).
+    private int[] storedStudents;                       // The rows of the enrolled students of a StudentStore.
+    private int storedStudentCount;                     // The number of rows in storedStudents.
+    private int clockDay;                               // The day of the school the countdowns are up to date with.
+    private int eventDay;                               // The day of the next start or end of the course.
+
+    /**
+     * Creates a {@code Course} object and initializes the {@code subject}, {@code daysUntilStarts}, {@code daysToRun}
+     * and {@code enrolledStudents} properties using the given parameters.
+     *
+     * @param subject                   the subject associated with the course
+     * @param daysUntilStarts           the number of days until the course starts
+     * @throws InvalidInputException    If the number of days until the course starts is not a positive integer
+     */
+    public Course(Subject subject, int daysUntilStarts) {
+        if (daysUntilStarts < 0) {
+            throw new InvalidInputException("The number of days until the course starts must be greater or equal to 0");
+        } else {
+            this.subject = subject;
+            this.daysUntilStarts = daysUntilStarts;
+            daysToRun = subject.getDuration();
+            enrolledStudents = new LinkedHashSet<>();
+            enrolledStudentsView = Collections.unmodifiableSet(enrolledStudents);
+            storedStudents = new int[0];
+        }
+    }
+
+    /**
+     * Course's {@code Subject} accessor method.
+     *
+     * @return the subject associated with the course
+     */
+    public Subject getSubject() {
+        return subject;
+    }
+
+    /**
+     * Course's {@code school} setter method. It is called by {@link School#add(Course)}, so that the school can be
+     * notified every time a student is enrolled in or released from the course.
+     *
+     * @param school        the school the course belongs to
+     */
+    public void setSchool(School school) {
+        this.school = school;
+    }
+
+    /**
+     * Course's {@code status} accessor method.
+     * If the course has not started, then returns the negative of the number of days until the course starts.
+     * If the course is currently running, then returns the number of days left until the course finishes.
+     * If the course has finished, then returns 0.
+     *
+     * @return the status of the course
+     */
+    public int getStatus() {
+        catchUp();
+        if (daysUntilStarts > 0) {
+            status = -daysUntilStarts;
+            return status;
+        } else if (daysUntilStarts == 0) {
+            status = daysToRun;
+            return status;
+        } else {
+            return 0;
+        }
+    }
+
+    /**
+     * Course's {@code daysUntilStarts} accessor method.
+     *
+     * @return the number of days until the course starts
+     */
+    public int getDaysUntilStarts() {
+        catchUp();
+        return daysUntilStarts;
+    }
+
+    /**
+     * Course's {@code daysToRun} accessor method.
+     *
+     * @return the number of days that the course still has to run
+     */
+    public int getDaysToRun() {
+        catchUp();
+        return daysToRun;
+    }
+
+    /**
+     * Restores the countdowns and the cancellation flag of the course, e.g. when it is read back from a
+     * {@link SchoolSnapshot}.
+     *
+     * @param daysUntilStarts           the number of days until the course starts
+     * @param daysToRun                 the number of days that the course still has to run
+     * @param courseCancelled           true if the course has been cancelled, false otherwise
+     */
+    public void restoreState(int daysUntilStarts, int daysToRun, boolean courseCancelled) {
+        this.daysUntilStarts = daysUntilStarts;
+        this.daysToRun = daysToRun;
+        this.courseCancelled = courseCancelled;
+    }
+
+    /**
+     * Returns whether or not the course has been cancelled.
+     *
+     * @return true if the course has been cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return courseCancelled;
+    }
+
+    /**
+     * Tries to assign the {@code Instructor} passed as parameter to this course.
+     *
+     * @param instructor        the instructor we want to set for the course
+     * @return true if the instructor can teach the course, false otherwise
+     */
+    public boolean setInstructor(Instructor instructor) {
+        if (instructor.canTeach(getSubject())) {
+            courseInstructor = instructor;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Course's {@code Instructor} accessor method.
+     *
+     * @return the instructor of the course
+     */
+    public Instructor getInstructor() {
+        return courseInstructor;
+    }
+
+    /**
+     * Returns whether or not the course has an instructor
+     *
+     * @return true if the course has an instructor, false otherwise
+     */
+    public boolean hasInstructor() {
+        return courseInstructor != null;
+    }
+
+    /**
+     * Adds the {@code Student} object passed as parameter to the collection of {@code enrolledStudents}.
+     *
+     * @param student       the student to enrol
+     * @return false <ul><li> if the course is full (see {@link Subject#getCapacity()}) </li>
+     *               <li> or if it has already started </li>
+     *               <li> or if the student has already graduated from that course </li>
+     *               <li> or if the student has not the prerequisites for the subject taught in the course </li> </ul>
+     *         true  <ul><li> otherwise </li></ul>
+     */
+    public boolean enrolStudent(Student student) {
+        if (isFull() || getStatus() > 0 || !student.canTake(getSubject())) {
+            return false;
+        } else {
+            enrolledStudents.add(student);
+            student.addAttendedCourse(this);
+            if (school != null) {
+                school.studentEnrolled(this, student);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Enrols the students of the collection passed as parameter in the course, in order, with the same rules as
+     * {@link #enrolStudent(Student)}, until the course is full: the students that cannot be enrolled are skipped. The
+     * school is notified of the whole batch at once, so that filling a large course takes a single update of its
+     * indexes.
+     *
+     * @param students      the students to enrol, in the order they take the free seats
+     * @return the number of students that have been enrolled
+     */
+    public int enrolStudents(Collection<Student> students) {
+        int freeSeats = getFreeSeats();
+        ArrayList<Student> enrolled = new ArrayList<>(Math.min(freeSeats, students.size()));
+        for (Student student : students) {
+            if (enrolled.size() == freeSeats) {
+                break;
+            }
+            if (student.canTake(getSubject()) && enrolledStudents.add(student)) {
+                student.addAttendedCourse(this);
+                enrolled.add(student);
+            }
+        }
+        if (school != null && !enrolled.isEmpty()) {
+            school.studentsEnrolled(this, enrolled);
+        }
+        return enrolled.size();
+    }
+
+    /**
+     * Enrols the student in the row of the {@link StudentStore} of the school passed as parameter, with the same rules
+     * as {@link #enrolStudent(Student)}.
+     *
+     * @param row           the row of the student in the student store of the school
+     * @return true if the student has been enrolled, false otherwise
+     */
+    public boolean enrolStoredStudent(int row) {
+        StudentStore store = school.getStudentStore();
+        PrerequisiteGraph graph = school.getPrerequisiteGraph();
+        int position = graph.getPosition(getSubject());
+        if (isFull() || getStatus() > 0 || position < 0 ||
+                store.hasCertificate(row, graph.getSubjectIndex(position)) ||
+                !store.hasCertificates(row, graph.getPrerequisiteMask(position))) {
+            return false;
+        } else {
+            if (storedStudentCount == storedStudents.length) {
+                int[] newStoredStudents = new int[Math.max(4, storedStudentCount * 2)];
+                System.arraycopy(storedStudents, 0, newStoredStudents, 0, storedStudentCount);
+                storedStudents = newStoredStudents;
+            }
+            storedStudents[storedStudentCount++] = row;
+            store.attend(row, getSubject().getID());
+            school.storedStudentEnrolled(this);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the rows of the students of the {@link StudentStore} of the school enrolled in the course.
+     *
+     * @return a copy of the rows of the stored students enrolled in the course
+     */
+    public int[] getStoredStudents() {
+        return Arrays.copyOf(storedStudents, storedStudentCount);
+    }
+
+    /**
+     * Adds the {@code Student} object passed as parameter to the collection of {@code enrolledStudents} without any of
+     * the checks and notifications of {@link #enrolStudent(Student)}, e.g. when the course is read back from a
+     * {@link SchoolSnapshot}.
+     *
+     * @param student       the student to add to the course
+     */
+    public void restoreStudent(Student student) {
+        enrolledStudents.add(student);
+    }
+
+    /**
+     * Returns an array containing all the students enrolled in the course.
+     *
+     * @return the Student[] array of students enrolled in the course
+     */
+    public Student[] getStudents() {
+        return enrolledStudents.toArray(new Student[0]);
+    }
+
+    /**
+     * Returns the array list of all the students enrolled in the course.
+     *
+     * @return a new Student array list of the students enrolled in the course
+     */
+    public ArrayList<Student> getStudentsArrayList() {
+        return new ArrayList<>(enrolledStudents);
+    }
+
+    /**
+     * Returns the set of all the students enrolled in the course, in the order they were enrolled. The returned set is
+     * a read-only view, which can be iterated over without copying the students.
+     *
+     * @return the set of the students enrolled in the course
+     */
+    public Set<Student> getEnrolledStudents() {
+        return enrolledStudentsView;
+    }
+
+    /**
+     * Checks whether or not the {@code Student} passed as parameter is enrolled in the course, in constant time.
+     *
+     * @param student       the student to look for
+     * @return true if the student is enrolled in the course, false otherwise
+     */
+    public boolean isEnrolled(Student student) {
+        return enrolledStudents.contains(student);
+    }
+
+    /**
+     * Returns whether or not the course is full, i.e. whether it has as many students as the capacity of its
+     * {@link Subject}.
+     *
+     * @return true if no more students can be enrolled in the course, false otherwise
+     */
+    public boolean isFull() {
+        return getSize() >= subject.getCapacity();
+    }
+
+    /**
+     * Returns the number of students that can still be enrolled in the course: none if it has already started.
+     *
+     * @return the number of free seats of the course
+     */
+    public int getFreeSeats() {
+        return getStatus() > 0 ? 0 : Math.max(0, subject.getCapacity() - getSize());
+    }
+
+    /**
+     * Returns the course size.
+     *
+     * @return the number of students enrolled in the course
+     */
+    public int getSize() {
+        return enrolledStudents.size() + storedStudentCount;
+    }
+
+
+    /**
+     * Advances one day for the course.
+     * It reduces by one the {@code daysUntilStarts} if the course has not started, or the {@code daysToRun} if it has
+     * started. It also:
+     * <ul><li> Cancels the course if it is starting without any instructor or students, releasing the instructor (if any)
+     *          and the students (if any) from the course.</li>
+     *     <li> If the course finishes, then issues the certificate for the course’s subject to all the students in
+     *          the course and unassign the instructor from the course.</li></ul>
+     */
+    public void aDayPasses() {
+        if (countDown()) {
+            release();
+        }
+    }
+
+    /**
+     * Reduces by one the {@code daysUntilStarts} if the course has not started, or the {@code daysToRun} if it has
+     * started, and cancels the course if it is starting without any instructor or students. Only the state of the
+     * course itself changes: the students and the instructor of a course that has been cancelled or has finished must
+     * then be released through {@link #release()}.
+     *
+     * @return true if the course has been cancelled or has finished on this day, false otherwise
+     */
+    private boolean countDown() {
+        if (daysUntilStarts > 0) {
+            daysUntilStarts--;
+
+            // Cancels the course if it is starting without any instructor or students.
+            if ((daysUntilStarts == 0) && (getInstructor() == null || getSize() == 0)) {
+                courseCancelled = true;
+                return true;
+            }
+        } else if (daysUntilStarts == 0 && daysToRun > 0) {
+            daysToRun--;
+            return daysToRun == 0;
+        }
+        return false;
+    }
+
+    /**
+     * Releases the instructor (if any) and the students (if any) of the course after {@link #countDown()} has cancelled
+     * or finished it. If the course has finished, it first issues the certificate for the course’s subject to all the
+     * students in the course, and unassigns the instructor from the course. Nothing is released from a course that is
+     * still running.
+     */
+    private void release() {
+        if (courseCancelled) {
+
+            // Releases the instructor (if any) and the students (if any) from the cancelled course.
+            if (courseInstructor != null) {
+               courseInstructor.unassignCourse(this);
+               if (school != null) {
+                   school.instructorReleased(courseInstructor);
+               }
+            }
+
+            for (Student student : enrolledStudents) {
+                student.removeAttendedCourse(this);
+                if (school != null) {
+                    school.studentReleased(student);
+                }
+            }
+            enrolledStudents.clear();
+            for (int i = 0; i < storedStudentCount; i++) {
+                school.getStudentStore().release(storedStudents[i], getSubject().getID());
+            }
+            storedStudentCount = 0;
+        } else if (daysUntilStarts == 0 && daysToRun == 0) {
+
+            /* Issues the certificate for the course’s subject to all the students in the course and unassign the
+            instructor from the course. */
+            for (Student student : enrolledStudents) {
+                student.graduate(getSubject());
+                student.removeAttendedCourse(this);
+                if (school != null) {
+                    school.studentGraduated();
+                    school.studentReleased(student);
+                }
+            }
+            enrolledStudents.clear();
+            int subjectIndex = storedStudentCount == 0 ? -1 :
+                    school.getPrerequisiteGraph().getIndex(getSubject().getID());
+            for (int i = 0; i < storedStudentCount; i++) {
+                school.getStudentStore().graduate(storedStudents[i], subjectIndex);
+                school.getStudentStore().release(storedStudents[i], getSubject().getID());
+                school.studentGraduated();
+            }
+            storedStudentCount = 0;
+
+            /* To avoid NullPointerException unassign the course from the instructor and the instructor from
+            the course only if the course has one. */
+            if (courseInstructor != null) {
+                courseInstructor.unassignCourse(this);
+                if (school != null) {
+                    school.instructorReleased(courseInstructor);
+                }
+                courseInstructor = null;
+            }
+        }
+    }
+
+    /**
+     * Advances the course by the number of {@code days} passed as parameter, with the same outcome as calling
+     * {@link #aDayPasses()} that many times, but skipping in a single step the days on which the course neither starts
+     * nor ends.
+     *
+     * @param days          the number of days to advance the course by
+     */
+    public void daysPass(int days) {
+        while (days > 0 && !courseCancelled) {
+            int idleDays;
+            if (daysUntilStarts > 1) {
+                idleDays = Math.min(days, daysUntilStarts - 1);
+                daysUntilStarts -= idleDays;
+            } else if (daysUntilStarts == 0 && daysToRun > 1) {
+                idleDays = Math.min(days, daysToRun - 1);
+                daysToRun -= idleDays;
+            } else if (daysUntilStarts == 0 && daysToRun == 0) {
+                return;
+            } else {
+                aDayPasses();
+                idleDays = 1;
+            }
+            days -= idleDays;
+        }
+    }
+
+    /**
+     * Makes the countdowns of the course follow the day of its school from the {@code day} passed as parameter
+     * onwards, when the school is event-driven (see {@link School#setEventDriven(boolean)}): the countdowns are then
+     * only advanced when the course starts or ends (see {@link #advanceTo(int)}), or when they are read.
+     *
+     * @param day           the day of the school the countdowns are up to date with
+     */
+    public void followClock(int day) {
+        clockDay = day;
+        scheduleNextEvent();
+    }
+
+    /**
+     * Advances the course to the {@code day} of its school passed as parameter, starting, cancelling or ending the
+     * course if that happens by that day.
+     *
+     * @param day           the day of the school to advance the course to
+     */
+    public void advanceTo(int day) {
+        daysPass(day - clockDay);
+        clockDay = day;
+        scheduleNextEvent();
+    }
+
+    /**
+     * Returns the day of the school on which the course next starts or ends, and has to be advanced through
+     * {@link #advanceTo(int)}. A course that has already been cancelled or finished ends on the day after the one its
+     * countdowns are up to date with, when the school removes it.
+     *
+     * @return the day of the next start or end of the course
+     */
+    public int getEventDay() {
+        return eventDay;
+    }
+
+    /**
+     * Computes the day of the school on which the course next starts or ends, from its up to date countdowns.
+     */
+    private void scheduleNextEvent() {
+        if (courseCancelled || (daysUntilStarts == 0 && daysToRun == 0)) {
+            eventDay = clockDay + 1;
+        } else if (daysUntilStarts > 0) {
+            eventDay = clockDay + daysUntilStarts;
+        } else {
+            eventDay = clockDay + daysToRun;
+        }
+    }
+
+    /**
+     * Brings the countdowns of the course up to date with the day of its school, if the school is event-driven. Only
+     * the days before the next start or end of the course are skipped, as the school advances the course through that
+     * day itself.
+     */
+    private void catchUp() {
+        if (school != null && school.isEventDriven()) {
+            int day = Math.min(school.getDay(), eventDay - 1);
+            if (day > clockDay) {
+                daysPass(day - clockDay);
+                clockDay = day;
+            }
+        }
+    }
+
+    /**
+     * Writes the pretty-print details of the {@code Course} to the {@link Formatter} passed as parameter, one row at a
+     * time, without building any intermediate string.
+     *
+     * @param formatter         the formatter to write the course's subject, status, instructor and enrolled students to
+     */
+    public void writeDetails(Formatter formatter) {
+        if (isCancelled()) {
+            formatter.format("%-30s %25s%n", getSubject().getDescription(), "Course cancelled!");
+        } else if (getStatus() == 0) {
+            formatter.format("%-30s %25s%n", getSubject().getDescription(), "Course finished!");
+        } else {
+
+            /* Depending whether the the course has started or not, writes the description and the status of the course
+            to the table-formatted output. */
+            if (getStatus() < 0) {
+                formatter.format("%-30s %25s", getSubject().getDescription(), (-getStatus()) + " day(s) to start");
+            } else {
+                formatter.format("%-30s %25s", getSubject().getDescription(), getStatus() + " day(s) to the end");
+            }
+
+            // If the course has an Instructor, writes it to the table-formatted output.
+            if (!hasInstructor()) {
+                formatter.format("%15s", "N/A");
+            } else {
+                formatter.format("%15s", getInstructor().getName());
+            }
+
+            // If present, writes in column enrolled students' names to the enrolled students column.
+            if (getSize() == 0) {
+                formatter.format("\n\n");
+            } else {
+                int size = getSize();
+                Iterator<Student> students = enrolledStudents.iterator();
+                for (int i = 0; i < size; i++) {
+                    String studentName = students.hasNext() ? students.next().getName() :
+                            school.getStudentStore().getName(storedStudents[i - enrolledStudents.size()]);
+                    if (i == 0 && size == 1) {
+                        formatter.format("%26s%n%n", studentName);
+                    } else if (i == 0) {
+                        formatter.format("%26s%n", studentName);
+                    } else if (i == size - 1) {
+                        formatter.format("%97s%n%n", studentName);
+                    } else {
+                        formatter.format("%97s%n", studentName);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a pretty-print string of the {@code Course}, containing all its details.
+     *
+     * @return a table-formatted string containing the course's subject, status, instructor and enrolled students
+     */
+    @Override
+    public String toString() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeDetails(formatter);
+        return formatter.toString();
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class defines a {@code MonteCarloRunner}, which runs many independent replicas of the same {@link School} and
+ * estimates the outcomes of the simulation over all of them.
+ * The initial state of the school is written once as a {@link SchoolSnapshot} in memory, and each replica reads its
+ * own copy of the school from it, so that the configuration file is only parsed once. The replicas are run in parallel
+ * on a fixed pool of threads, each by its own {@link Administrator} seeded with a different seed split from the seed
+ * of the runner, so that a batch run with the same seed always has the same outcome. The replicas are event-driven
+ * (see {@link School#setEventDriven(boolean)}) if the school they start from is.
+ * For each replica it measures: <ul>
+ *      <li> the graduation rate, as the number of graduations per enrolment;</li>
+ *      <li> the cancellation rate, as the number of courses cancelled per course created;</li>
+ *      <li> the instructor utilisation, as the average share of the instructors teaching at least one course at the
+ *           end of each day;</li>
+ *      <li> the number of students of the school at the end of the run.</li></ul>
+ * and it reports the mean of each measure over the replicas, with its 95% confidence interval.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class MonteCarloRunner {
+    private static final double Z_95 = 1.96;                // The z-score of a 95% confidence interval.
+
+    /** The names of the measures taken from each replica, in the order of the rows of the results. */
+    private static final String[] MEASURES = {"Graduation rate", "Cancellation rate", "Instructor utilisation",
+            "Final students"};
+
+    private byte[] initialState;        // The snapshot of the school each replica starts from.
+    private String schoolName;          // The name of the school.
+    private boolean eventDriven;        // True if the replicas only advance the courses starting or ending each day.
+
+    /**
+     * Creates a new {@code MonteCarloRunner} whose replicas start from the current state of the {@link School} passed
+     * as parameter. The school itself is never run.
+     *
+     * @param school                    the school each replica starts from
+     * @throws IOException              If the school cannot be written as a snapshot
+     * @throws InvalidInputException    If the school keeps its students in a {@link StudentStore}
+     */
+    public MonteCarloRunner(School school) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SchoolSnapshot.write(school, 0, out);
+        }
+        initialState = bytes.toByteArray();
+        schoolName = school.getName();
+        eventDriven = school.isEventDriven();
+    }
+
+    /**
+     * Runs {@code replicas} replicas of the school for {@code daysToRun} days each, on {@code threads} threads, then
+     * writes the mean of each measure over the replicas and its 95% confidence interval to the output passed as
+     * parameter.
+     *
+     * @param replicas                  the number of replicas to run
+     * @param daysToRun                 the number of days to run each replica for
+     * @param threads                   the number of threads running the replicas
+     * @param seed                      the seed the seeds of the replicas are split from
+     * @param out                       the output the results are written to
+     * @throws IOException              If an I/O error occurs while writing the results
+     * @throws InvalidInputException    If the number of replicas or threads is not a positive integer
+     */
+    public void run(int replicas, int daysToRun, int threads, long seed, Writer out) throws IOException {
+        double[][] results = run(replicas, daysToRun, threads, seed);
+        out.write("School: " + schoolName + " - Replicas: " + replicas + ", Days: " + daysToRun +
+                System.lineSeparator());
+        for (int measure = 0; measure < MEASURES.length; measure++) {
+            writeStatistic(MEASURES[measure], results[measure], out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Runs {@code replicas} replicas of the school for {@code daysToRun} days each, on {@code threads} threads, and
+     * returns the measures taken from each of them. Replica i is always seeded with the i-th seed split from
+     * {@code seed}, however the replicas are scheduled.
+     *
+     * @param replicas                  the number of replicas to run
+     * @param daysToRun                 the number of days to run each replica for
+     * @param threads                   the number of threads running the replicas
+     * @param seed                      the seed the seeds of the replicas are split from
+     * @return the measures, indexed by measure and then by replica
+     * @throws IOException              If the snapshot of a replica cannot be read
+     * @throws InvalidInputException    If the number of replicas or threads is not a positive integer
+     */
+    public double[][] run(int replicas, int daysToRun, int threads, long seed) throws IOException {
+        if (replicas < 1 || threads < 1) {
+            throw new InvalidInputException("The number of replicas and of threads must be greater than 0.\n");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(threads, replicas));
+        try {
+            ArrayList<Future<double[]>> runs = new ArrayList<>(replicas);
+            for (int i = 0; i < replicas; i++) {
+                long replicaSeed = random.nextLong();
+                runs.add(workers.submit(() -> runReplica(daysToRun, replicaSeed)));
+            }
+
+            double[][] results = new double[MEASURES.length][replicas];
+            for (int i = 0; i < replicas; i++) {
+                double[] measures = await(runs.get(i));
+                for (int measure = 0; measure < MEASURES.length; measure++) {
+                    results[measure][i] = measures[measure];
+                }
+            }
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Reads a new copy of the school from the initial snapshot and runs it for {@code daysToRun} days, seeded with the
+     * {@code seed} passed as parameter.
+     *
+     * @param daysToRun         the number of days to run the replica for
+     * @param seed              the seed of the random source of the replica
+     * @return the measures taken from the replica, in the order of {@code MEASURES}
+     * @throws IOException      If the snapshot cannot be read
+     */
+    private double[] runReplica(int daysToRun, long seed) throws IOException {
+        School school = SchoolSnapshot.read(new DataInputStream(new ByteArrayInputStream(initialState))).getSchool();
+        school.setEventDriven(eventDriven);
+        SimulationMetrics metrics = school.getMetrics();
+        long enrolments = metrics.get(SimulationMetrics.Counter.ENROLMENTS);
+        long graduations = metrics.get(SimulationMetrics.Counter.GRADUATIONS);
+        long coursesCreated = metrics.get(SimulationMetrics.Counter.COURSES_CREATED);
+        long coursesCancelled = metrics.get(SimulationMetrics.Counter.COURSES_CANCELLED);
+
+        Administrator administrator = new Administrator(school, seed);
+        double utilisation = 0;
+        for (int day = 0; day < daysToRun; day++) {
+            administrator.run();
+
+            // Counts the instructors teaching at least one course at the end of the day.
+            int teachingInstructors = 0;
+            for (Instructor instructor : school.getInstructors()) {
+                if (!instructor.getAssignedCourses().isEmpty()) {
+                    teachingInstructors++;
+                }
+            }
+            if (!school.getInstructors().isEmpty()) {
+                utilisation += (double) teachingInstructors / school.getInstructors().size();
+            }
+        }
+
+        enrolments = metrics.get(SimulationMetrics.Counter.ENROLMENTS) - enrolments;
+        graduations = metrics.get(SimulationMetrics.Counter.GRADUATIONS) - graduations;
+        coursesCreated = metrics.get(SimulationMetrics.Counter.COURSES_CREATED) - coursesCreated;
+        coursesCancelled = metrics.get(SimulationMetrics.Counter.COURSES_CANCELLED) - coursesCancelled;
+        return new double[] {
+                enrolments == 0 ? 0 : (double) graduations / enrolments,
+                coursesCreated == 0 ? 0 : (double) coursesCancelled / coursesCreated,
+                daysToRun == 0 ? 0 : utilisation / daysToRun,
+                school.getStudentCount()};
+    }
+
+    /**
+     * Waits for a replica to be run and returns its measures, rethrowing the exception that made it fail (if any).
+     *
+     * @param run               the task running the replica
+     * @return the measures taken from the replica
+     * @throws IOException      If the snapshot of the replica cannot be read
+     */
+    private static double[] await(Future<double[]> run) throws IOException {
+        try {
+            return run.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running the replicas.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the mean of the {@code values} passed as parameter, the half-width of its 95% confidence interval and the
+     * interval itself, as a row of the results.
+     *
+     * @param measure           the name of the measure
+     * @param values            the values of the measure, one for each replica
+     * @param out               the output the row is written to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    private static void writeStatistic(String measure, double[] values, Writer out) throws IOException {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        double mean = sum / values.length;
+
+        // Uses the sample standard deviation, which is 0 when there is a single replica.
+        double squares = 0;
+        for (double value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        double deviation = values.length > 1 ? Math.sqrt(squares / (values.length - 1)) : 0;
+        double halfWidth = Z_95 * deviation / Math.sqrt(values.length);
+
+        out.write(String.format("%-24s %12.4f +/- %10.4f   (95%% CI: %.4f - %.4f)%n", measure + ":", mean, halfWidth,
+                mean - halfWidth, mean + halfWidth));
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+
+/**
+ * This class defines a {@code MultiSchoolSimulation}, which runs several {@link School}s, each with its own
+ * {@link Administrator}, at the same time.
+ * Each school is run by its own worker thread, and the workers wait for each other at the end of each day, so that all
+ * the schools are always on the same day. The reports of the schools are written to a buffer by their worker, then
+ * streamed out in the order of the schools once the day is over, followed by a summary of all the schools together.
+ * Each school has its own random source, split from the seed of the simulation (see {@link #setSeed(long)}), so that a
+ * simulation run with the same seed always has the same outcome regardless of how its threads are scheduled.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class MultiSchoolSimulation {
+    private ArrayList<Administrator> administrators;    // The administrators running the schools.
+    private ArrayList<StringWriter> reportBuffers;      // The buffers the reports of each school are written to.
+    private ReportMode reportMode;                      // How the status of the schools is reported while running.
+    private int reportInterval;                         // The number of days between two reports.
+    private Writer reportOutput;                        // The output the reports are streamed to.
+    private int lastDay;                                // The last day of the current run.
+
+    /**
+     * Creates a new {@code MultiSchoolSimulation} running the schools of the {@link Administrator}s passed as parameter.
+     * The reports of the administrators are redirected to the simulation, which streams them to its own output.
+     *
+     * @param administrators            the administrators running the schools
+     * @throws InvalidInputException    If there are no administrators
+     */
+    public MultiSchoolSimulation(List<Administrator> administrators) {
+        if (administrators.isEmpty()) {
+            throw new InvalidInputException("There must be at least one school to simulate.\n");
+        }
+        this.administrators = new ArrayList<>(administrators);
+        reportBuffers = new ArrayList<>();
+        for (Administrator administrator : this.administrators) {
+            StringWriter reportBuffer = new StringWriter();
+            administrator.setReportOutput(reportBuffer);
+            reportBuffers.add(reportBuffer);
+        }
+        reportInterval = 1;
+        setReportMode(ReportMode.EVERY);
+        reportOutput = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    }
+
+    /**
+     * MultiSchoolSimulation's {@code administrators} accessor method.
+     *
+     * @return the ArrayList of the administrators running the schools
+     */
+    public ArrayList<Administrator> getAdministrators() {
+        return administrators;
+    }
+
+    /**
+     * Re-seeds the random source of each school with a different seed split from the {@code seed} passed as parameter,
+     * so that the following days are reproducible.
+     *
+     * @param seed              the seed of the random sources of the simulation
+     */
+    public void setSeed(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (Administrator administrator : administrators) {
+            administrator.setSeed(random.nextLong());
+        }
+    }
+
+    /**
+     * Sets how the status of the schools is reported by {@link #run(int)}. In {@link ReportMode#SUMMARY} mode each
+     * summary is followed by the one of all the schools together.
+     *
+     * @param reportMode        how the status of the schools is reported
+     */
+    public void setReportMode(ReportMode reportMode) {
+        this.reportMode = reportMode;
+        for (Administrator administrator : administrators) {
+            administrator.setReportMode(reportMode);
+        }
+    }
+
+    /**
+     * Sets the number of days between two reports of {@link ReportMode#EVERY} and {@link ReportMode#SUMMARY} modes.
+     *
+     * @param reportInterval            the number of days between two reports
+     * @throws InvalidInputException    If the number of days is not a positive integer
+     */
+    public void setReportInterval(int reportInterval) {
+        for (Administrator administrator : administrators) {
+            administrator.setReportInterval(reportInterval);
+        }
+        this.reportInterval = reportInterval;
+    }
+
+    /**
+     * MultiSchoolSimulation's {@code reportOutput} setter method. By default, the reports are streamed to the standard
+     * output.
+     *
+     * @param reportOutput      the output the reports printed by {@link #run(int)} are streamed to
+     */
+    public void setReportOutput(Writer reportOutput) {
+        this.reportOutput = reportOutput;
+    }
+
+    /**
+     * Runs all the schools for the {@code daysToRun} passed as parameter, each on its own worker thread. At the end of
+     * each day the workers wait for each other, and the last one to finish the day streams out the reports of all the
+     * schools.
+     *
+     * @param daysToRun         the number of days to run the schools for
+     */
+    public void run(int daysToRun) {
+        if (daysToRun < 1) {
+            return;
+        }
+        lastDay = administrators.get(0).getDay() + daysToRun;
+        Phaser endOfDay = new Phaser(administrators.size()) {
+            @Override
+            protected boolean onAdvance(int phase, int registeredParties) {
+                writeReports();
+                return false;
+            }
+        };
+        ExecutorService workers = Executors.newFixedThreadPool(administrators.size());
+        try {
+            ArrayList<Future<?>> schools = new ArrayList<>();
+            for (Administrator administrator : administrators) {
+                schools.add(workers.submit(() -> runSchool(administrator, daysToRun, endOfDay)));
+            }
+            awaitAll(schools);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the school of the {@link Administrator} passed as parameter for the {@code daysToRun} passed as parameter,
+     * waiting for the other schools at the end of each day. If the school fails, it terminates the phaser, which
+     * releases the schools already waiting for it and lets the others stop as soon as they finish their day, instead
+     * of waiting for it forever.
+     *
+     * @param administrator     the administrator running the school
+     * @param daysToRun         the number of days to run the school for
+     * @param endOfDay          the phaser the schools wait at at the end of each day
+     */
+    private void runSchool(Administrator administrator, int daysToRun, Phaser endOfDay) {
+        try {
+            for (int i = 1; i <= daysToRun && !endOfDay.isTerminated(); i++) {
+                administrator.runDay(i == daysToRun);
+                endOfDay.arriveAndAwaitAdvance();
+            }
+        } catch (RuntimeException | Error e) {
+            endOfDay.forceTermination();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for all the schools to be run, then rethrows the first failure of a school (if any).
+     *
+     * @param schools           the tasks running the schools
+     */
+    private void awaitAll(ArrayList<Future<?>> schools) {
+        Throwable failure = null;
+        for (Future<?> school : schools) {
+            try {
+                school.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running the schools.", e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            }
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    /**
+     * Streams out the reports each school has written during the day, in the order of the schools, followed by the
+     * summary of all the schools together when in {@link ReportMode#SUMMARY} mode. If an I/O error occurs it catches
+     * the IOException.
+     */
+    private void writeReports() {
+        int day = administrators.get(0).getDay();
+        try {
+            for (int i = 0; i < administrators.size(); i++) {
+                StringBuffer report = reportBuffers.get(i).getBuffer();
+                if (report.length() > 0) {
+                    reportOutput.write("School: " + administrators.get(i).getSchool().getName() +
+                            System.lineSeparator());
+                    reportOutput.append(report);
+                    report.setLength(0);
+                }
+            }
+            if (reportMode == ReportMode.SUMMARY && (day % reportInterval == 0 || day == lastDay)) {
+                reportOutput.write("Day: " + day + " - All schools: " + getSummary() + System.lineSeparator());
+            }
+            reportOutput.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.err.println("Unable to print the status of the schools!\n");
+        }
+    }
+
+    /**
+     * Returns a one-line summary of the counters of all the schools together: the number of schools, subjects,
+     * courses, instructors, students and students enrolled in at least one course.
+     *
+     * @return a string containing the total number of schools, subjects, courses, instructors, students and active
+     * students
+     */
+    public String getSummary() {
+        int subjects = 0;
+        int courses = 0;
+        int instructors = 0;
+        int students = 0;
+        int activeStudents = 0;
+        for (Administrator administrator : administrators) {
+            School school = administrator.getSchool();
+            subjects += school.getSubjects().size();
+            courses += school.getCourses().size();
+            instructors += school.getInstructors().size();
+            students += school.getStudentCount();
+            activeStudents += school.getActiveStudentCount();
+        }
+        return "Schools: " + administrators.size() + ", Subjects: " + subjects + ", Courses: " + courses +
+                ", Instructors: " + instructors + ", Students: " + students + " (" + activeStudents + " active)";
+    }
+}
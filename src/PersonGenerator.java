@@ -1,60 +1,145 @@
-import java.util.Random;
-
-/**
- * This class defines a {@code PersonGenerator}.
- * Using the {@link #createPerson(String)} method it creates a new {@link Person} object of the specified subclass, taking
- * a random name and gender from the {@code RANDOM_NAMES_AND_GENDERS} 20x2 matrix and random generated age. It also keeps
- * in consideration that the age limit for a {@link Student} is lower than the one of an {@link Instructor}.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class PersonGenerator {
-
-    /** A 2x20 matrix containing the 20 most common english male and female names and the relative genders */
-    private static final String[][] RANDOM_NAMES_AND_GENDERS = {{"James", "M"}, {"Mary", "F"}, {"John", "M"}, {"Patricia", "F"},
-            {"Robert", "M"}, {"Jennifer", "F"}, {"Michael", "M"}, {"Linda", "F"}, {"William", "M"}, {"Elizabeth", "F"},
-            {"David", "M"}, {"Barbara", "F"}, {"Richard", "M"}, {"Susan", "F"}, {"Joseph", "M"}, {"Jessica", "F"},
-            {"Thomas", "M"}, {"Sarah", "F"}, {"Charles", "M"}, {"Karen", "F"}};
-
-    /**
-     * Creates a {@link Person} object of the specified type, with random {@code name}, {@code gender}, and {@code age}.
-     *
-     * @param personType        The string containing the type of Person object to create (Student, Teacher, Demonstrator,
-     *                          OOTrainer, GUITrainer)
-     * @return a new Person object of the specified type with random name, gender and age
-     */
-    public static Person createPerson(String personType) {
-
-        // Generates a random number to select one of the 20 name-gender couple from the nameAndGendersMatrix.
-        int randomNameAndGender = new Random().ints(0, 20).findFirst().getAsInt();
-        int randomAge;
-
-        // If the Person type is a student, the random age value is in the 18-26 range. For Instructors it is 30-70.
-        if (personType.equalsIgnoreCase("Student")) {
-            randomAge = new Random().ints(18, 26).findFirst().getAsInt();
-        } else {
-            randomAge = new Random().ints(30, 70).findFirst().getAsInt();
-        }
-
-        // Fetches the corresponding random name (and relative gender) from the namesAndGenders matrix.
-        String randomName = RANDOM_NAMES_AND_GENDERS[randomNameAndGender][0];
-        char randomGender = RANDOM_NAMES_AND_GENDERS[randomNameAndGender][1].charAt(0);
-
-        // Creates the correct type of person object, as specified in the method parameter.
-        if (personType.equalsIgnoreCase("Student")) {
-            return new Student(randomName, randomGender, randomAge);
-        } else if (personType.equalsIgnoreCase("Teacher")) {
-            return new Teacher(randomName, randomGender, randomAge);
-        } else if (personType.equalsIgnoreCase("Demonstrator")) {
-            return new Demonstrator(randomName, randomGender, randomAge);
-        } else if (personType.equalsIgnoreCase("OOTrainer")) {
-            return new OOTrainer(randomName, randomGender, randomAge);
-        } else if (personType.equalsIgnoreCase("GUITrainer")) {
-            return new GUITrainer(randomName, randomGender, randomAge);
-        } else {
-            System.err.println("Please select the type of person to create: Student, Teacher, Demonstrator, OOTrainer, GUITrainer");
-            return null;
-        }
-    }
-}
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+
+/**
+ * This class defines a {@code PersonGenerator}.
+ * Using the {@link #createPerson(PersonType)} method it creates a new {@link Person} object of the specified subclass,
+ * taking a random name and gender from the {@code RANDOM_NAMES_AND_GENDERS} 20x2 matrix and random generated age. The
+ * names and genders are split into two arrays once, so every person generated with the same name shares the same
+ * String, and no gender is derived again for each new person. It also keeps
+ * in consideration that the age limit for a {@link Student} is lower than the one of an {@link Instructor}.
+ * All the random values are drawn from the {@link SplittableRandom} the generator is created with, so that a simulation
+ * run from the same seed always generates the same people.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class PersonGenerator {
+
+    /** A 2x20 matrix containing the 20 most common english male and female names and the relative genders */
+    private static final String[][] RANDOM_NAMES_AND_GENDERS = {{"James", "M"}, {"Mary", "F"}, {"John", "M"}, {"Patricia", "F"},
+            {"Robert", "M"}, {"Jennifer", "F"}, {"Michael", "M"}, {"Linda", "F"}, {"William", "M"}, {"Elizabeth", "F"},
+            {"David", "M"}, {"Barbara", "F"}, {"Richard", "M"}, {"Susan", "F"}, {"Joseph", "M"}, {"Jessica", "F"},
+            {"Thomas", "M"}, {"Sarah", "F"}, {"Charles", "M"}, {"Karen", "F"}};
+
+    /** The names of the {@code RANDOM_NAMES_AND_GENDERS} matrix, shared by all the people generated with them. */
+    private static final String[] NAMES = new String[RANDOM_NAMES_AND_GENDERS.length];
+
+    /** The genders of the {@code RANDOM_NAMES_AND_GENDERS} matrix, with the same indexes as {@code NAMES}. */
+    private static final char[] GENDERS = new char[RANDOM_NAMES_AND_GENDERS.length];
+
+    static {
+        for (int i = 0; i < RANDOM_NAMES_AND_GENDERS.length; i++) {
+            NAMES[i] = RANDOM_NAMES_AND_GENDERS[i][0];
+            GENDERS[i] = RANDOM_NAMES_AND_GENDERS[i][1].charAt(0);
+        }
+    }
+
+    private SplittableRandom random;        // The source of the random names, genders and ages.
+
+    /**
+     * Creates a new {@code PersonGenerator} object drawing its random values from an unseeded random source.
+     */
+    public PersonGenerator() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Creates a new {@code PersonGenerator} object drawing its random values from the {@code random} source passed as
+     * parameter.
+     *
+     * @param random        the source of the random names, genders and ages
+     */
+    public PersonGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Creates a {@link Person} object of the specified type, with random {@code name}, {@code gender}, and {@code age}.
+     *
+     * @param personType        The string containing the type of Person object to create (Student, Teacher, Demonstrator,
+     *                          OOTrainer, GUITrainer)
+     * @return a new Person object of the specified type with random name, gender and age
+     */
+    public Person createPerson(String personType) {
+        PersonType type = PersonType.fromClassName(personType);
+        if (type == null) {
+            System.err.println("Please select the type of person to create: Student, Teacher, Demonstrator, OOTrainer, GUITrainer");
+            return null;
+        }
+        return createPerson(type);
+    }
+
+    /**
+     * Creates a {@link Person} object of the {@link PersonType} passed as parameter, with random {@code name},
+     * {@code gender}, and {@code age}.
+     *
+     * @param personType        the type of Person object to create
+     * @return a new Person object of the specified type with random name, gender and age
+     */
+    public Person createPerson(PersonType personType) {
+
+        // Generates a random number to select one of the 20 name-gender couples, then an age in the type's range.
+        int randomNameAndGender = random.nextInt(NAMES.length);
+        int randomAge = random.nextInt(personType.getMinAge(), personType.getMaxAge());
+
+        return personType.create(NAMES[randomNameAndGender], GENDERS[randomNameAndGender], randomAge);
+    }
+
+    /**
+     * Creates a {@link Student} with random {@code name}, {@code gender}, and {@code age}.
+     *
+     * @return a new Student with random name, gender and age
+     */
+    public Student createStudent() {
+        return (Student) createPerson(PersonType.STUDENT);
+    }
+
+    /**
+     * Creates an {@link Instructor} of the {@link PersonType} passed as parameter, with random {@code name},
+     * {@code gender}, and {@code age}.
+     *
+     * @param personType                the type of instructor to create
+     * @return a new Instructor of the specified type with random name, gender and age
+     * @throws IllegalArgumentException If the type passed as parameter is {@code STUDENT}
+     */
+    public Instructor createInstructor(PersonType personType) {
+        if (personType == PersonType.STUDENT) {
+            throw new IllegalArgumentException("A student is not an instructor!");
+        }
+        return (Instructor) createPerson(personType);
+    }
+
+    /**
+     * Creates {@code n} {@link Student}s with random {@code name}, {@code gender}, and {@code age}. The random values
+     * are drawn in the same order as {@code n} calls to {@link #createStudent()}.
+     *
+     * @param n             the number of students to create
+     * @return an ArrayList containing the new students
+     */
+    public ArrayList<Student> createStudents(int n) {
+        ArrayList<Student> students = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            students.add(createStudent());
+        }
+        return students;
+    }
+
+    /**
+     * Adds {@code n} students with random {@code name}, {@code gender}, and {@code age} straight to the
+     * {@link StudentStore} passed as parameter, without creating a {@link Student} object for each of them. The random
+     * values are drawn in the same order as {@code n} calls to {@link #createStudent()}.
+     *
+     * @param studentStore  the store to add the students to
+     * @param n             the number of students to add
+     */
+    public void createStudents(StudentStore studentStore, int n) {
+        int minAge = PersonType.STUDENT.getMinAge();
+        int maxAge = PersonType.STUDENT.getMaxAge();
+        for (int i = 0; i < n; i++) {
+            int randomNameAndGender = random.nextInt(NAMES.length);
+            int randomAge = random.nextInt(minAge, maxAge);
+            studentStore.add(NAMES[randomNameAndGender], GENDERS[randomNameAndGender], randomAge);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * This enum defines the types of {@link Person} of the {@code School}: {@link Student}s and the four types of
+ * {@link Instructor}. Each type knows its class name (as used in the Configuration file), the range of ages of the
+ * people of that type generated by the {@link PersonGenerator}, and how to create a person of that type, so that people
+ * can be created without comparing class names as strings.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public enum PersonType {
+    STUDENT("Student", 18, 26) {
+        @Override
+        public Student create(String name, char gender, int age) {
+            return new Student(name, gender, age);
+        }
+    },
+    TEACHER("Teacher", 30, 70) {
+        @Override
+        public Teacher create(String name, char gender, int age) {
+            return new Teacher(name, gender, age);
+        }
+    },
+    DEMONSTRATOR("Demonstrator", 30, 70) {
+        @Override
+        public Demonstrator create(String name, char gender, int age) {
+            return new Demonstrator(name, gender, age);
+        }
+    },
+    OO_TRAINER("OOTrainer", 30, 70) {
+        @Override
+        public OOTrainer create(String name, char gender, int age) {
+            return new OOTrainer(name, gender, age);
+        }
+    },
+    GUI_TRAINER("GUITrainer", 30, 70) {
+        @Override
+        public GUITrainer create(String name, char gender, int age) {
+            return new GUITrainer(name, gender, age);
+        }
+    };
+
+    private final String className;         // The name of the class, as used in the Configuration file.
+    private final int minAge;               // The minimum age of a generated person of this type (inclusive).
+    private final int maxAge;               // The maximum age of a generated person of this type (exclusive).
+
+    /**
+     * Creates a new {@code PersonType} with the {@code className} and range of ages passed as parameters.
+     *
+     * @param className     the name of the class, as used in the Configuration file
+     * @param minAge        the minimum age of a generated person of this type (inclusive)
+     * @param maxAge        the maximum age of a generated person of this type (exclusive)
+     */
+    PersonType(String className, int minAge, int maxAge) {
+        this.className = className;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * PersonType's {@code className} accessor method.
+     *
+     * @return the name of the class, as used in the Configuration file
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * PersonType's {@code minAge} accessor method.
+     *
+     * @return the minimum age of a generated person of this type (inclusive)
+     */
+    public int getMinAge() {
+        return minAge;
+    }
+
+    /**
+     * PersonType's {@code maxAge} accessor method.
+     *
+     * @return the maximum age of a generated person of this type (exclusive)
+     */
+    public int getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Creates a new {@link Person} of this type with the {@code name}, {@code gender} and {@code age} passed as
+     * parameters.
+     *
+     * @param name                      the name of the person
+     * @param gender                    person's gender: male ('M') or female ('F')
+     * @param age                       how old the person is, in years
+     * @return the new person
+     * @throws InvalidInputException    If gender is not M or F, or if age is not positive
+     */
+    public abstract Person create(String name, char gender, int age);
+
+    /**
+     * Returns the {@code PersonType} with the class name passed as parameter, ignoring its case.
+     *
+     * @param className     the name of the class, e.g. as read from the Configuration file
+     * @return the type of person with that class name, or null if there is none
+     */
+    public static PersonType fromClassName(String className) {
+        for (PersonType type : values()) {
+            if (type.className.equalsIgnoreCase(className)) {
+                return type;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,316 @@
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class defines a {@code PrerequisiteGraph}, the graph of the prerequisites of the {@link Subject}s of a
+ * {@code School}: each subject points to the subjects that require it.
+ * The subjects are numbered by their position in the list they are built from (the order in which they were added to
+ * the school), and the sets of subjects a {@link Student} can take next are {@link SubjectSet}s of positions rather
+ * than of IDs, so that iterating over them goes through the subjects in the school's order. The subject IDs are also
+ * given a dense index (see {@link #getIndex(int)}), so that the certificates and the prerequisites can be compared as
+ * small {@link SubjectSet}s whatever the values of the IDs. When a student graduates from a subject, only the subjects
+ * requiring it are checked again (see {@link #graduate(SubjectSet, SubjectSet, int)}).
+ * {@link #validate()} checks that the graph is a DAG whose prerequisites are all taught in the school.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class PrerequisiteGraph {
+    private static final int[] NO_POSITIONS = new int[0];     // The positions of an ID no subject has or requires.
+
+    private Subject[] subjects;                             // The subjects, by position.
+    private HashMap<Integer, int[]> positionsById;          // The positions of the subjects with each ID.
+    private HashMap<Integer, int[]> dependentsById;         // The positions of the subjects requiring each subject ID.
+    private HashMap<Integer, Integer> indexesById;          // The dense index of each subject ID.
+    private int[] idsByIndex;                               // The subject ID of each index.
+    private int[] subjectIndexes;                           // The index of the ID of the subject at each position.
+    private SubjectSet[] prerequisiteMasks;                 // The indexes of the prerequisites of each subject.
+    private SubjectSet taughtIndexes;                       // The indexes of the IDs of all the subjects.
+
+    /**
+     * Creates a new {@code PrerequisiteGraph} of the {@link Subject}s passed as parameter, numbering them by their
+     * position in the list. The IDs of the subjects are indexed first, in the same order, followed by the IDs that are
+     * only prerequisites, so that the index of a subject is its position when no two subjects share an ID.
+     *
+     * @param subjects      the subjects of the school, in the order they were added to it
+     */
+    public PrerequisiteGraph(List<Subject> subjects) {
+        this.subjects = subjects.toArray(new Subject[0]);
+        positionsById = new HashMap<>();
+        dependentsById = new HashMap<>();
+        indexesById = new HashMap<>();
+        subjectIndexes = new int[this.subjects.length];
+        prerequisiteMasks = new SubjectSet[this.subjects.length];
+        taughtIndexes = new SubjectSet();
+        for (int position = 0; position < this.subjects.length; position++) {
+            Subject subject = this.subjects[position];
+            positionsById.merge(subject.getID(), new int[] {position}, PrerequisiteGraph::concat);
+            subjectIndexes[position] = indexesById.computeIfAbsent(subject.getID(), id -> indexesById.size());
+            taughtIndexes.add(subjectIndexes[position]);
+        }
+        for (int position = 0; position < this.subjects.length; position++) {
+            SubjectList prerequisites = this.subjects[position].getPrerequisites();
+            prerequisiteMasks[position] = new SubjectSet();
+            for (int i = 0; i < prerequisites.size(); i++) {
+                dependentsById.merge(prerequisites.get(i), new int[] {position}, PrerequisiteGraph::concat);
+                prerequisiteMasks[position].add(indexesById.computeIfAbsent(prerequisites.get(i),
+                        id -> indexesById.size()));
+            }
+        }
+        idsByIndex = new int[indexesById.size()];
+        for (Map.Entry<Integer, Integer> index : indexesById.entrySet()) {
+            idsByIndex[index.getValue()] = index.getKey();
+        }
+    }
+
+    /**
+     * Returns the number of subjects of the graph.
+     *
+     * @return the number of subjects of the graph
+     */
+    public int size() {
+        return subjects.length;
+    }
+
+    /**
+     * Returns the {@link Subject} at the position passed as parameter.
+     *
+     * @param position      the position of the subject, in the order they were added to the school
+     * @return the subject at that position
+     */
+    public Subject getSubject(int position) {
+        return subjects[position];
+    }
+
+    /**
+     * Returns the position of the {@link Subject} passed as parameter.
+     *
+     * @param subject       the subject to look for
+     * @return the position of the subject, or -1 if it is not a subject of the graph
+     */
+    public int getPosition(Subject subject) {
+        for (int position : positionsById.getOrDefault(subject.getID(), NO_POSITIONS)) {
+            if (subjects[position] == subject) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the first {@link Subject} with the ID passed as parameter.
+     *
+     * @param subjectID     the ID of the subject
+     * @return the position of the subject, or -1 if no subject has that ID
+     */
+    public int getPosition(int subjectID) {
+        int[] positions = positionsById.getOrDefault(subjectID, NO_POSITIONS);
+        return positions.length == 0 ? -1 : positions[0];
+    }
+
+    /**
+     * Returns the dense index of the subject ID passed as parameter: the IDs of the subjects are numbered from 0 in the
+     * order of the subjects, then the IDs that are only prerequisites. The certificates and the prerequisites are
+     * compared as {@link SubjectSet}s of these indexes.
+     *
+     * @param subjectID     the ID of the subject
+     * @return the index of the ID, or -1 if no subject has or requires that ID
+     */
+    public int getIndex(int subjectID) {
+        Integer index = indexesById.get(subjectID);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns the number of indexes of the subject IDs (see {@link #getIndex(int)}), i.e. the size a set of indexes
+     * can reach.
+     *
+     * @return the number of distinct IDs of the subjects and of their prerequisites
+     */
+    public int getIndexCount() {
+        return idsByIndex.length;
+    }
+
+    /**
+     * Returns the subject ID of the index passed as parameter.
+     *
+     * @param index         the index of the subject ID (see {@link #getIndex(int)})
+     * @return the subject ID with that index
+     */
+    public int getSubjectID(int index) {
+        return idsByIndex[index];
+    }
+
+    /**
+     * Returns the index of the ID of the {@link Subject} at the position passed as parameter.
+     *
+     * @param position      the position of the subject
+     * @return the index of the subject ID (see {@link #getIndex(int)})
+     */
+    public int getSubjectIndex(int position) {
+        return subjectIndexes[position];
+    }
+
+    /**
+     * Returns the indexes of the prerequisites of the {@link Subject} at the position passed as parameter.
+     *
+     * @param position      the position of the subject
+     * @return the set of the indexes of the IDs of the prerequisites of the subject
+     */
+    public SubjectSet getPrerequisiteMask(int position) {
+        return prerequisiteMasks[position];
+    }
+
+    /**
+     * Returns the indexes of the IDs of all the subjects of the graph, e.g. to check whether a student has obtained the
+     * certificates for all of them. The set must not be changed by the callers.
+     *
+     * @return the set of the indexes of the IDs of the subjects
+     */
+    public SubjectSet getSubjectIndexes() {
+        return taughtIndexes;
+    }
+
+    /**
+     * Returns the indexes of the subject IDs in the list passed as parameter, leaving out the IDs the graph does not
+     * know, as no subject has or requires them.
+     *
+     * @param subjectIDs    the subject IDs, e.g. the certificates of a student
+     * @return the set of the indexes of the subject IDs
+     */
+    public SubjectSet getIndexes(SubjectList subjectIDs) {
+        SubjectSet indexes = new SubjectSet();
+        for (int i = 0; i < subjectIDs.size(); i++) {
+            int index = getIndex(subjectIDs.get(i));
+            if (index >= 0) {
+                indexes.add(index);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Checks that no two subjects have the same ID, that every prerequisite is the ID of a subject of the graph, and
+     * that no subject requires itself, either directly or through other subjects (i.e. that the graph is acyclic,
+     * using Kahn's algorithm).
+     *
+     * @throws InvalidInputException    If two subjects have the same ID, if a prerequisite is not taught in the school,
+     *                                  or if some prerequisites form a cycle
+     */
+    public void validate() {
+        for (int[] positions : positionsById.values()) {
+            if (positions.length > 1) {
+                throw new InvalidInputException("Please check your configuration file. The ID " +
+                        subjects[positions[0]].getID() + " is used by more than one subject.\n");
+            }
+        }
+        for (Subject subject : subjects) {
+            SubjectList prerequisites = subject.getPrerequisites();
+            for (int i = 0; i < prerequisites.size(); i++) {
+                int prerequisite = prerequisites.get(i);
+                if (!positionsById.containsKey(prerequisite)) {
+                    throw new InvalidInputException("Please check your configuration file. The prerequisite " +
+                            prerequisite + " of the subject " + subject.getDescription() + " is not a subject of the " +
+                            "school.\n");
+                }
+            }
+        }
+
+        // Takes the subjects without prerequisites left to take, until no more subjects can be taken.
+        int[] missingPrerequisites = new int[subjects.length];
+        ArrayDeque<Integer> takeable = new ArrayDeque<>();
+        for (int position = 0; position < subjects.length; position++) {
+            missingPrerequisites[position] = subjects[position].getPrerequisites().size();
+            if (missingPrerequisites[position] == 0) {
+                takeable.add(position);
+            }
+        }
+        int taken = 0;
+        while (!takeable.isEmpty()) {
+            int position = takeable.poll();
+            taken++;
+            for (int dependent : dependentsById.getOrDefault(subjects[position].getID(), NO_POSITIONS)) {
+                if (--missingPrerequisites[dependent] == 0) {
+                    takeable.add(dependent);
+                }
+            }
+        }
+
+        if (taken < subjects.length) {
+            StringBuilder cycle = new StringBuilder();
+            for (int position = 0; position < subjects.length; position++) {
+                if (missingPrerequisites[position] > 0) {
+                    cycle.append(cycle.length() == 0 ? "" : ", ").append(subjects[position].getDescription());
+                }
+            }
+            throw new InvalidInputException("Please check your configuration file. The prerequisites of these " +
+                    "subjects form a cycle, so they can never be taken: " + cycle + ".\n");
+        }
+    }
+
+    /**
+     * Returns the positions of the subjects a student with the {@code certificates} passed as parameter can take: the
+     * ones the student has not graduated from yet, and whose prerequisites the student has all graduated from.
+     *
+     * @param certificates      the indexes of the IDs of the subjects the student has graduated from
+     * @return the set of the positions of the subjects the student can take
+     */
+    public SubjectSet getEligibleSubjects(SubjectSet certificates) {
+        SubjectSet eligibleSubjects = new SubjectSet();
+        for (int position = 0; position < subjects.length; position++) {
+            if (isEligible(position, certificates)) {
+                eligibleSubjects.add(position);
+            }
+        }
+        return eligibleSubjects;
+    }
+
+    /**
+     * Updates the set of subjects a student can take after the student graduated from the subject with the ID passed
+     * as parameter: the subjects with that ID are removed from it, and the subjects requiring it are added to it if the
+     * student now has all their prerequisites.
+     *
+     * @param eligibleSubjects  the positions of the subjects the student could take before graduating
+     * @param certificates      the indexes of the IDs of the subjects the student has graduated from, including the
+     *                          new one
+     * @param subjectID         the ID of the subject the student graduated from
+     */
+    public void graduate(SubjectSet eligibleSubjects, SubjectSet certificates, int subjectID) {
+        for (int position : positionsById.getOrDefault(subjectID, NO_POSITIONS)) {
+            eligibleSubjects.remove(position);
+        }
+        for (int dependent : dependentsById.getOrDefault(subjectID, NO_POSITIONS)) {
+            if (isEligible(dependent, certificates)) {
+                eligibleSubjects.add(dependent);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a student with the {@code certificates} passed as parameter can take the subject at the position
+     * passed as parameter.
+     *
+     * @param position          the position of the subject
+     * @param certificates      the indexes of the IDs of the subjects the student has graduated from
+     * @return true if the student has not graduated from the subject but has all its prerequisites, false otherwise
+     */
+    private boolean isEligible(int position, SubjectSet certificates) {
+        return !certificates.contains(subjectIndexes[position]) && certificates.containsAll(prerequisiteMasks[position]);
+    }
+
+    /**
+     * Concatenates two arrays of positions, to merge the positions of the same ID.
+     *
+     * @param first         the positions found so far
+     * @param second        the new positions
+     * @return an array with the positions of both arrays
+     */
+    private static int[] concat(int[] first, int[] second) {
+        int[] positions = new int[first.length + second.length];
+        System.arraycopy(first, 0, positions, 0, first.length);
+        System.arraycopy(second, 0, positions, first.length, second.length);
+        return positions;
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * This enum defines the {@code ReportMode}s an {@link Administrator} can use to report the status of the {@link School}
+ * while running the simulation with {@link Administrator#run(int)}.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public enum ReportMode {
+
+    /** Prints nothing. */
+    NONE,
+
+    /** Prints the full status of the School every N days (every day by default). */
+    EVERY,
+
+    /** Prints the full status of the School only at the end of the last day. */
+    FINAL,
+
+    /** Prints a one-line summary of the School's counters every N days (every day by default). */
+    SUMMARY;
+
+    /**
+     * Returns the {@code ReportMode} with the name passed as parameter, ignoring its case.
+     *
+     * @param name                      the name of the report mode (none, every, final or summary)
+     * @return the report mode with the given name
+     * @throws InvalidInputException    If there is no report mode with the given name
+     */
+    public static ReportMode fromName(String name) {
+        for (ReportMode reportMode : values()) {
+            if (reportMode.name().equalsIgnoreCase(name)) {
+                return reportMode;
+            }
+        }
+        throw new InvalidInputException("Please select a report mode: none, every, final or summary.\n");
+    }
+}
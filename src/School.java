@@ -1,413 +1,1460 @@
-import java.util.ArrayList;
-
-/**
- * This class defines the {@code School}, which is where all our Students are taught and our Instructors work.
- * The class provides all the properties and methods necessary to manage the {@code School}'s' complex system of
- * {@code Subjects}, {@code Courses}, {@code Instructors} and {@code Students}.
- * A {@code School} object must have a {@code name}, and can also be set to have a maximum number of courses that a
- * student can enrol in ({@code maxEnrollableCourses}) and a maximum number of courses that an Instructor can teach
- * ({@code maxAssignableCourses}). This two parameters, if not specified in the Configuration File will be 1 by default.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class School {
-    private String schoolName;                             // The name of the School.
-    private ArrayList<Subject> schoolSubjects;             // The Subjects taught at the School.
-    private ArrayList<Course> schoolCourses;               // The Courses of the School.
-    private ArrayList<Student> schoolStudents;             // The Students enrolled to the School.
-    private ArrayList<Instructor> schoolInstructors;       // The Instructors of the School.
-    private int maxEnrollableCourses;                      // The maximum number of courses that a student can enrol in.
-    private int maxAssignableCourses;                      // The maximum number of courses that an Instructor can teach.
-
-    /**
-     * Creates a {@code School} object and initializes the {@code schoolName}, {@code schoolSubjects},
-     * {@code schoolCourses}, {@code schoolStudents}, {@code schoolInstructors}, {@code maxEnrollableCourses} and
-     * {@code maxAssignableCourses} properties using the given parameters.
-     *
-     * @param schoolName        the name of the school
-     */
-    public School(String schoolName) {
-        this.schoolName = schoolName;
-        schoolSubjects = new ArrayList<>();
-        schoolCourses = new ArrayList<>();
-        schoolStudents = new ArrayList<>();
-        schoolInstructors = new ArrayList<>();
-        maxEnrollableCourses = 1;
-        maxAssignableCourses = 1;
-    }
-
-    /**
-     * School's {@code maxEnrollableCourses} setter method.
-     *
-     * @param maxEnrollableCourses     the maximum number of courses that a student can enrol in
-     */
-    public void setMaxEnrollableCourses(int maxEnrollableCourses) {
-        this.maxEnrollableCourses = maxEnrollableCourses;
-    }
-
-    /**
-     * School's {@code maxAssignableCourses} setter method.
-     *
-     * @param maxAssignableCourses     the maximum number of courses that an Instructor can teach
-     */
-    public void setMaxAssignableCourses(int maxAssignableCourses) {
-        this.maxAssignableCourses = maxAssignableCourses;
-    }
-
-
-    // Student manager methods.
-
-    /**
-     * Adds the {@code Student} object passed as parameter to the {@code schoolStudents} ArrayList.
-     *
-     * @param student       the student to be added to the enrolledStudents ArrayList
-     */
-    public void add(Student student) {
-        schoolStudents.add(student);
-    }
-
-    /**
-     * Removes the {@code Student} object passed as parameter from the {@code schoolStudents} ArrayList.
-     *
-     * @param student       the student to be removed from the enrolledStudents ArrayList
-     */
-    public void remove(Student student) {
-        schoolStudents.remove(student);
-    }
-
-    /**
-     * School's {@code schoolStudents} ArrayList accessor method.
-     *
-     * @return the ArrayList containing all the students enrolled in the School
-     */
-    public ArrayList<Student> getStudents() {
-        return schoolStudents;
-    }
-
-    /**
-     * Returns an ArrayList of the students enrolled in at least one course.
-     *
-     * @return an ArrayList containing all the school students enrolled in at least one course
-     */
-    public ArrayList<Student> getActiveStudents() {
-        ArrayList<Student> activeStudents = new ArrayList<>();
-
-        // Iterates over each active course of the school and adds the corresponding students to the set.
-        for (Course course : schoolCourses) {
-            activeStudents.addAll(course.getStudentsArrayList());
-        }
-        return activeStudents;
-    }
-
-
-    // Subject manager methods.
-
-    /**
-     * Adds the {@code Subject} object passed as parameter to the {@code schoolSubjects} ArrayList.
-     *
-     * @param subject       the subject to be added to the schoolSubjects ArrayList
-     */
-    public void add(Subject subject) {
-        schoolSubjects.add(subject);
-    }
-
-    /**
-     * Removes the {@code Subject} object passed as parameter from the {@code schoolSubjects} ArrayList.
-     *
-     * @param subject       the subject to be removed from the schoolSubjects ArrayList
-     */
-    public void remove(Subject subject) {
-        schoolSubjects.remove(subject);
-    }
-
-    /**
-     * School's {@code schoolSubjects} ArrayList accessor method.
-     *
-     * @return the ArrayList containing all the subjects taught in the School
-     */
-    public ArrayList<Subject> getSubjects() {
-        return schoolSubjects;
-    }
-
-
-    // Course manager methods
-
-    /**
-     * Adds the {@code Course} object passed as parameter to the {@code schoolCourses} ArrayList.
-     *
-     * @param course       the course to be added to the schoolCourses ArrayList
-     */
-    public void add(Course course) {
-        schoolCourses.add(course);
-    }
-
-    /**
-     * Removes the {@code Course} object passed as parameter from the {@code schoolCourses} ArrayList.
-     *
-     * @param course       the course to be removed from the schoolCourses ArrayList
-     */
-    public void remove(Course course) {
-        schoolCourses.remove(course);
-    }
-
-    /**
-     * School's {@code schoolCourses} ArrayList accessor method.
-     *
-     * @return the ArrayList containing all the courses taught in the School
-     */
-    public ArrayList<Course> getCourses() {
-        return schoolCourses;
-    }
-
-
-    // Instructor manager methods
-
-    /**
-     * Adds the {@code Instructor} object passed as parameter to the {@code schoolInstructors} ArrayList.
-     *
-     * @param instructor       the instructor to be added to the schoolInstructors ArrayList
-     */
-    public void add(Instructor instructor) {
-        schoolInstructors.add(instructor);
-    }
-
-    /**
-     * Removes the {@code Instructor} object passed as parameter from the {@code schoolInstructors} ArrayList.
-     *
-     * @param instructor       the instructor to be removed from the schoolInstructors ArrayList
-     */
-    public void remove(Instructor instructor) {
-        schoolInstructors.remove(instructor);
-    }
-
-    /**
-     * School's {@code schoolInstructors} ArrayList accessor method.
-     *
-     * @return the ArrayList containing all the instructors of the School
-     */
-    public ArrayList<Instructor> getInstructors() {
-        return schoolInstructors;
-    }
-
-    /**
-     * Returns a pretty-print string of the {@code School}, containing all the details about each {@link Subject},
-     * {@link Course}, {@link Instructor} and {@link Student} of the {@link School}.
-     *
-     * @return a table-formatted string containing information about school's subjects, courses, instructors, students and the
-     *         relationships between them
-     */
-    @Override
-    public String toString() {
-        String welcome = "                                  Welcome to " + this.schoolName + "\n" +
-                "Below you can find a detailed list of all the Subjects, Courses, Instructors and Students of our school.\n\n\n";
-        String separator = "\n**********************************************************************************************************\n\n";
-
-        return welcome + extractSubjectDetails() + separator
-                       + extractCoursesDetails() + separator
-                       + extractInstructorsDetails() + separator
-                       + extractStudentsDetails() + separator;
-    }
-
-    /**
-     * Iterates over the {@code schoolSubjects} ArrayList and returns each {@link Subject}'s {@code name}, {@code ID}, {@code specialism},
-     * {@code duration} and {@code prerequisites}.
-     *
-     * @return a table-formatted string containing all subjects' names, IDs, specialisms and durations (in days)
-     */
-    public String extractSubjectDetails() {
-
-        // Puts the subjects properties' titles in the first row of the table-formatted string.
-        StringBuilder subjectsDetails = new StringBuilder(String.format("%-15s %9s %22s %20s %25s%n", "Name:",
-                "Subject ID:", "Specialism:", "Duration:", "Prerequisites:"));
-
-        // Iterates over the Subjects array list and prints out each subject's name, id, specialism and duration.
-        for (Subject subject : schoolSubjects) {
-            subjectsDetails.append(subject.toString());
-        }
-        return "                                               SUBJECTS\n\n" + subjectsDetails;
-    }
-
-    /**
-     * Iterates over the {@code schoolCourses} ArrayList and returns each {@link Course}'s {@code subject}, {@code status},
-     * {@code courseInstructor}, and {@code enrolledStudents}.
-     *
-     * @return a table-formatted string containing all courses' subjects, statuses, instructors and enrolled students
-     */
-    public String extractCoursesDetails() {
-
-        // Puts the courses properties' titles in the first row of the table-formatted string.
-        StringBuilder coursesDetails = new StringBuilder(String.format("%-30s %25s %15s %25s%n", "Subject:", "Status:",
-                "Instructor:", "Enrolled Students:"));
-
-        /* Iterates over the Courses array list and prints out each course's subject, status, instructor and enrolled
-        students. */
-        for (Course course : schoolCourses) {
-            coursesDetails.append(course.toString());
-        }
-        return "                                                COURSES\n\n" + coursesDetails;
-    }
-
-    /**
-     * Iterates over the {@code schoolInstructors} ArrayList and returns each {@link Instructor}'s {@code name},
-     * {@code gender}, {@code age}, {@code type} and {@code assignedCourse}.
-     *
-     * @return a table-formatted string containing all instructors' names, gender, ages, types and assigned courses
-     */
-    public String extractInstructorsDetails() {
-
-        // Puts the instructors properties' titles in the first row of the table-formatted string.
-        StringBuilder instructorsDetails = new StringBuilder(String.format("%-20s %4s %15s %26s %26s%n", "Name:",
-                "Gender:", "Age:", "Instructor Type:", "Assigned Course:"));
-
-        /* Iterates over the Instructors array list and prints out each instructor's name, gender, age, type and assigned
-        course. */
-        for (Instructor instructor : schoolInstructors) {
-            instructorsDetails.append(instructor.toString());
-        }
-        return "                                                INSTRUCTORS\n\n" + instructorsDetails;
-    }
-
-    /**
-     * Iterates over the {@code schoolStudents} ArrayList and returns each {@link Student}'s {@code name},
-     * {@code gender}, {@code age}, {@code certificates} and {@code enrolledCourses}.
-     *
-     * @return a table-formatted string containing all students' names, gender, ages, certificates and enrolled courses
-     */
-    public String extractStudentsDetails() {
-
-        // Puts the students properties' titles in the first row of the table-formatted string.
-        StringBuilder studentsDetails = new StringBuilder(String.format("%-20s %4s %15s %26s %26s%n", "Name:", "Gender:",
-                "Age:", "Certificates ID:", "Enrolled Course:"));
-
-        /* Iterates over the Students array list and prints out each students's name, gender, age, enrolled course and
-        certificates. */
-        for (Student student : schoolStudents) {
-            studentsDetails.append(student.toString());
-        }
-        return "                                                STUDENTS\n\n" + studentsDetails;
-    }
-
-    /**
-     * Simulates the events of a day at school, which are the following.
-     * <ol><li> For any topic that does not have an open-for-registration course, creates a new course for that subject
-     *          to start in 2 days. </li>
-     *
-     *     <li> Assigns instructors and students to courses:
-     *          <ul><li>Looks at each course that requires an instructor, and goes through the instructors until
-     *                  you finds one that is free (i.e., not already teaching other courses), and can teach the course.
-     *                  Assigns the {@link Instructor} to the {@link Course}. </li>
-     *             <li> Look at each student, if they are free, (i.e., not enrolled in any course) goes through
-     *                  the courses until it finds one that the student can join (e.g., not already full and the student
-     *                  has not got the certificate). </li></ul>
-     *     <li> Let the student learn (calls aDayPasses() on each course).</li>
-     *     <li> At the end of the day, removes any course that is cancelled or already finished.</li>/<ol>
-     */
-    public void aDayAtSchool() {
-        coursesRefresh();                           // Creates new courses.
-        assignInstructorToEachCourse();             // Assigns instructors to courses that need one.
-        enrolFreeStudents();                        // Assigns students to empty courses.
-
-        /* Lets the students learn (calls aDayPasses on each course) and removes any course that is cancelled or finished.
-        It uses an Array in order to avoid ConcurrentModificationException. */
-        Course[] courses = this.getCourses().toArray(new Course[0]);
-
-        for (int i = 0; i < schoolCourses.size(); i++) {
-            courses[i].aDayPasses();
-            if (courses[i].isCancelled() || courses[i].getStatus() == 0) {
-                schoolCourses.remove(courses[i]);
-            }
-        }
-    }
-
-    /**
-     * For any {@link Subject} in {@code schoolSubjects} that does not have an open-for-registration course, creates a
-     * new course that starts in 2 days.
-     */
-    public void coursesRefresh() {
-
-        /* Iterates over each school's subject, and checks if all the courses for that subjects are full, storing the
-        answer in the allCoursesFull variable. */
-        for (Subject subject : getSubjects()) {
-            boolean allCoursesFull = true;
-
-            for (Course course : getCourses()) {
-                if (subject == course.getSubject()) {
-                    if (course.getSize() < 3) {
-                        allCoursesFull = false;
-                        break;
-                    }
-                }
-            }
-
-            /* If all the courses for that specific subject are full, it checks if there are any instructors free that
-            can teach the subject. If so, it creates a new course with that instructor.*/
-            if (allCoursesFull) {
-                Course newCourse = new Course(subject, 2);
-                add(newCourse);
-            }
-        }
-    }
-
-    /**
-     * Iterates over each {@link Course} in {@code schoolCourses} and assigns an {@link Instructor} to the courses that
-     * don't have one.
-     */
-    public void assignInstructorToEachCourse() {
-
-        /* Looks at each course. If there is one that has no instructor, goes through the instructors until it finds one
-        that is free and can teach the course. If so, it assigns this instructor to the course. */
-        for (Course course : getCourses()) {
-            if (!course.hasInstructor()) {
-                for (Instructor instructor : getInstructors()) {
-
-                    if (instructor.getAssignedCourses() != null &&
-                            instructor.getAssignedCourses().size() < maxAssignableCourses &&
-                            instructor.canTeach(course.getSubject())) {
-                        course.setInstructor(instructor);
-                        instructor.assignCourse(course);
-                        break;
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Iterates over each {@link Student} in {@code schoolStudents} and, if possible, enrolls them to a new {@link Course}
-     */
-    public void enrolFreeStudents() {
-
-        /* Looks at each students. If no course contains their name, goes through all the courses until it finds one that
-        the student can join. If so, and if the student has not reached the maximum number of courses that can be enrolled,
-        in, enrols the student */
-        for (Student student : getStudents()) {
-            if(getNumberOfEnrolledCourses(student) < maxEnrollableCourses) {
-                for (Course course : getCourses()) {
-                    if (!course.getStudentsArrayList().contains(student) &&
-                            !student.getCertificates().contains(course.getSubject().getID()) &&
-                            getNumberOfEnrolledCourses(student) < maxEnrollableCourses &&
-                            !student.getAttendedSubject().contains(course.getSubject().getID()) ) {
-                        course.enrolStudent(student);
-                    }
-                }
-            }
-        }
-    }
-
-    /**
-     * Returns the number of courses the {@link Student} passed as parameter is enrolled in.
-     *
-     * @param student       the students we want to know the courses that is enrolled in
-     * @return the number of courses a students is enrolled in
-     */
-    public int getNumberOfEnrolledCourses(Student student) {
-        int enrolledCoursesCounter = 0;
-        for (Student stud : getActiveStudents()) {
-            if (stud == student){
-                enrolledCoursesCounter++;
-            }
-        }
-        return enrolledCoursesCounter;
-    }
-}
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * This class defines the {@code School}, which is where all our Students are taught and our Instructors work.
+ * The class provides all the properties and methods necessary to manage the {@code School}'s' complex system of
+ * {@code Subjects}, {@code Courses}, {@code Instructors} and {@code Students}.
+ * A {@code School} object must have a {@code name}, and can also be set to have a maximum number of courses that a
+ * student can enrol in ({@code maxEnrollableCourses}) and a maximum number of courses that an Instructor can teach
+ * ({@code maxAssignableCourses}). This two parameters, if not specified in the Configuration File will be 1 by default.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class School {
+    private String schoolName;                             // The name of the School.
+    private ArrayList<Subject> schoolSubjects;             // The Subjects taught at the School.
+    private ArrayList<Course> schoolCourses;               // The Courses of the School.
+    private ArrayList<Student> schoolStudents;             // The Students enrolled to the School.
+    private ArrayList<Instructor> schoolInstructors;       // The Instructors of the School.
+    private int maxEnrollableCourses;                      // The maximum number of courses that a student can enrol in.
+    private int maxAssignableCourses;                      // The maximum number of courses that an Instructor can teach.
+    private HashMap<Student, Integer> enrolledCoursesCount; // The number of courses each Student is enrolled in.
+    private HashMap<Subject, LinkedHashSet<Course>> openCourses;     // The Courses with free seats, by Subject.
+    private LinkedHashSet<Course> unstaffedCourses;        // The Courses that have no Instructor yet.
+    private HashSet<Instructor> hiredInstructors;          // The Instructors of the School, for fast lookups.
+    private HashMap<Integer, LinkedHashSet<Instructor>> availableInstructors; // The free Instructors, by specialism.
+    private SimulationMetrics metrics;                     // The timings and counters of the simulation.
+    private StudentStore studentStore;                     // The columnar store of the Students (null if not used).
+    private int day;                                       // The number of days the Courses have advanced.
+    private boolean eventDriven;                           // T if only the Courses starting or ending advance each day.
+    private PriorityQueue<CourseEvent> courseEvents;       // The next start or end of each Course, by day.
+    private long coursesFollowed;                          // The number of Courses that started following the day.
+    private Set<Course> endedCoursesToRemove;              // The ended Courses still in schoolCourses (event-driven).
+    private HashMap<Integer, Subject> subjectsById;        // The Subjects taught at the School, by ID.
+    private PrerequisiteGraph prerequisiteGraph;           // The prerequisites of the Subjects (null if out of date).
+    private ArrayList<ArrayDeque<Student>> waitlists;      // The Students waiting for a seat, by Subject position.
+    private HashMap<Student, Long> admissionNumbers;       // The order in which the Students joined the School.
+    private long admissions;                               // The number of Students that have joined the School.
+    private HashSet<Student> changedStudents;              // The Students whose places in the waitlists are out of date.
+    private LinkedHashSet<Student> activeStudents;         // The Students enrolled in at least one Course.
+    private Set<Student> activeStudentsView;               // The read-only view of activeStudents returned to callers.
+
+    /**
+     * Creates a {@code School} object and initializes the {@code schoolName}, {@code schoolSubjects},
+     * {@code schoolCourses}, {@code schoolStudents}, {@code schoolInstructors}, {@code maxEnrollableCourses} and
+     * {@code maxAssignableCourses} properties using the given parameters.
+     *
+     * @param schoolName        the name of the school
+     */
+    public School(String schoolName) {
+        this.schoolName = schoolName;
+        schoolSubjects = new ArrayList<>();
+        schoolCourses = new ArrayList<>();
+        schoolStudents = new ArrayList<>();
+        schoolInstructors = new ArrayList<>();
+        enrolledCoursesCount = new HashMap<>();
+        openCourses = new HashMap<>();
+        unstaffedCourses = new LinkedHashSet<>();
+        hiredInstructors = new HashSet<>();
+        availableInstructors = new HashMap<>();
+        metrics = new SimulationMetrics();
+        courseEvents = new PriorityQueue<>();
+        endedCoursesToRemove = Collections.newSetFromMap(new IdentityHashMap<>());
+        subjectsById = new HashMap<>();
+        waitlists = new ArrayList<>();
+        admissionNumbers = new HashMap<>();
+        changedStudents = new HashSet<>();
+        activeStudents = new LinkedHashSet<>();
+        activeStudentsView = Collections.unmodifiableSet(activeStudents);
+        maxEnrollableCourses = 1;
+        maxAssignableCourses = 1;
+    }
+
+    /**
+     * School's {@code maxEnrollableCourses} setter method.
+     *
+     * @param maxEnrollableCourses     the maximum number of courses that a student can enrol in
+     */
+    public void setMaxEnrollableCourses(int maxEnrollableCourses) {
+        this.maxEnrollableCourses = maxEnrollableCourses;
+        changedStudents.addAll(schoolStudents);     // The students may now be able to wait for more subjects.
+    }
+
+    /**
+     * School's {@code maxEnrollableCourses} accessor method.
+     *
+     * @return the maximum number of courses that a student can enrol in
+     */
+    public int getMaxEnrollableCourses() {
+        return maxEnrollableCourses;
+    }
+
+    /**
+     * School's {@code maxAssignableCourses} setter method.
+     *
+     * @param maxAssignableCourses     the maximum number of courses that an Instructor can teach
+     */
+    public void setMaxAssignableCourses(int maxAssignableCourses) {
+        this.maxAssignableCourses = maxAssignableCourses;
+        availableInstructors.clear();           // The pool of available instructors has to be rebuilt.
+    }
+
+    /**
+     * School's {@code maxAssignableCourses} accessor method.
+     *
+     * @return the maximum number of courses that an Instructor can teach
+     */
+    public int getMaxAssignableCourses() {
+        return maxAssignableCourses;
+    }
+
+
+    /**
+     * Sets whether the {@code School} is event-driven. An event-driven school keeps a queue of the days on which each
+     * {@link Course} starts or ends, and {@link #advanceCourses()} only advances the courses starting or ending on that
+     * day, one at a time, instead of calling {@link Course#aDayPasses()} on every course. The other courses skip the
+     * days on which nothing happens, and bring their countdowns up to date when they are read. The outcome of the
+     * simulation is the same in both modes.
+     *
+     * @param eventDriven       true to advance only the courses starting or ending each day, false to advance them all
+     */
+    public void setEventDriven(boolean eventDriven) {
+        removeEndedCourses();
+        if (eventDriven && !this.eventDriven) {
+            for (Course course : schoolCourses) {
+                follow(course);
+            }
+        } else if (!eventDriven && this.eventDriven) {
+            for (Course course : schoolCourses) {
+                course.advanceTo(day);
+            }
+            courseEvents.clear();
+        }
+        this.eventDriven = eventDriven;
+    }
+
+    /**
+     * Returns whether the {@code School} is event-driven (see {@link #setEventDriven(boolean)}).
+     *
+     * @return true if only the courses starting or ending advance each day, false if all the courses advance
+     */
+    public boolean isEventDriven() {
+        return eventDriven;
+    }
+
+    /**
+     * School's {@code day} accessor method.
+     *
+     * @return the number of days the courses of the school have advanced
+     */
+    public int getDay() {
+        return day;
+    }
+
+
+    /**
+     * School's {@code schoolName} accessor method.
+     *
+     * @return the name of the school
+     */
+    public String getName() {
+        return schoolName;
+    }
+
+    /**
+     * School's {@code metrics} accessor method.
+     *
+     * @return the timings of each phase of the simulated days and the counters of the simulation events
+     */
+    public SimulationMetrics getMetrics() {
+        return metrics;
+    }
+
+
+    // Student manager methods.
+
+    /**
+     * Adds the {@code Student} object passed as parameter to the {@code schoolStudents} ArrayList.
+     *
+     * @param student       the student to be added to the enrolledStudents ArrayList
+     */
+    public void add(Student student) {
+        schoolStudents.add(student);
+        enrolledCoursesCount.put(student, student.getAttendedCourse().size());
+        if (!student.getAttendedCourse().isEmpty()) {
+            activeStudents.add(student);
+        }
+        admissionNumbers.put(student, admissions++);
+        changedStudents.add(student);
+        if (prerequisiteGraph != null) {
+            student.setPrerequisiteGraph(prerequisiteGraph);
+        }
+    }
+
+    /**
+     * Removes the {@code Student} object passed as parameter from the {@code schoolStudents} ArrayList.
+     *
+     * @param student       the student to be removed from the enrolledStudents ArrayList
+     */
+    public void remove(Student student) {
+        schoolStudents.remove(student);
+        forget(student);
+    }
+
+    /**
+     * Removes all the students satisfying the {@code filter} passed as parameter from the {@code schoolStudents}
+     * ArrayList, in a single pass over it.
+     *
+     * @param filter        the condition the students to remove satisfy
+     * @return the number of students removed from the School
+     */
+    public int removeStudentsIf(Predicate<Student> filter) {
+        int studentsBefore = schoolStudents.size();
+        schoolStudents.removeIf(student -> {
+            if (filter.test(student)) {
+                forget(student);
+                return true;
+            }
+            return false;
+        });
+        return studentsBefore - schoolStudents.size();
+    }
+
+    /**
+     * Removes the {@link Student} passed as parameter, who has just left the School, from the indexes. The student is
+     * no longer waiting for any subject, and is dropped from the waitlists when it is their turn (see
+     * {@link #enrolFreeStudents()}).
+     *
+     * @param student       the student that has been removed from the schoolStudents ArrayList
+     */
+    private void forget(Student student) {
+        student.getWaitlistedSubjects().clear();
+        enrolledCoursesCount.remove(student);
+        activeStudents.remove(student);
+        admissionNumbers.remove(student);
+        changedStudents.remove(student);
+    }
+
+    /**
+     * Removes all the students in the {@code Collection} passed as parameter from the {@code schoolStudents} ArrayList,
+     * in a single pass over it.
+     *
+     * @param students      the students to be removed from the schoolStudents ArrayList
+     * @return the number of students removed from the School
+     */
+    public int removeAllStudents(Collection<Student> students) {
+        HashSet<Student> leavingStudents = new HashSet<>(students);
+        return removeStudentsIf(leavingStudents::contains);
+    }
+
+    /**
+     * School's {@code schoolStudents} ArrayList accessor method.
+     *
+     * @return the ArrayList containing all the students enrolled in the School
+     */
+    public ArrayList<Student> getStudents() {
+        return schoolStudents;
+    }
+
+    /**
+     * School's {@code studentStore} setter method.
+     * When a {@link StudentStore} is set, the Students of the School are kept as rows of the store instead of
+     * {@link Student} objects: the students already in the School are moved to the store (so none of them can be
+     * enrolled in a course yet), and {@link #enrolFreeStudents()} enrols the students of the store as well. The
+     * certificates are stored by the indexes of the {@link PrerequisiteGraph}, so the subjects of the School cannot be
+     * changed once the store is set.
+     *
+     * @param studentStore              the store to keep the Students of the School in
+     * @throws InvalidInputException    If a student of the School is already enrolled in a course
+     */
+    public void setStudentStore(StudentStore studentStore) {
+        for (Student student : schoolStudents) {
+            if (!student.getAttendedCourse().isEmpty()) {
+                throw new InvalidInputException("Students enrolled in a course cannot be moved to a student store.\n");
+            }
+        }
+        PrerequisiteGraph graph = getPrerequisiteGraph();
+        for (Student student : schoolStudents) {
+            int row = studentStore.add(student.getName(), student.getGender(), student.getAge());
+            SubjectSet certificates = graph.getIndexes(student.getCertificates());
+            for (int index = certificates.next(0); index >= 0; index = certificates.next(index + 1)) {
+                studentStore.graduate(row, index);
+            }
+        }
+        schoolStudents.clear();
+        enrolledCoursesCount.clear();
+        activeStudents.clear();
+        for (ArrayDeque<Student> waitlist : waitlists) {
+            waitlist.clear();
+        }
+        admissionNumbers.clear();
+        changedStudents.clear();
+        this.studentStore = studentStore;
+    }
+
+    /**
+     * School's {@code studentStore} accessor method.
+     *
+     * @return the columnar store of the Students of the School, or null if they are kept as Student objects
+     */
+    public StudentStore getStudentStore() {
+        return studentStore;
+    }
+
+    /**
+     * Returns a read-only view of the students enrolled in at least one course, in the order in which they became
+     * active. The set is kept up to date as the students are enrolled in and released from courses, so it is neither
+     * copied nor rebuilt.
+     *
+     * @return a Set containing all the school students enrolled in at least one course
+     */
+    public Set<Student> getActiveStudents() {
+        return activeStudentsView;
+    }
+
+    /**
+     * Checks whether or not the {@link Student} passed as parameter is enrolled in at least one course.
+     *
+     * @param student       the student to look for
+     * @return true if the student is a student of the school enrolled in at least one course, false otherwise
+     */
+    public boolean isActive(Student student) {
+        return activeStudents.contains(student);
+    }
+
+
+    // Subject manager methods.
+
+    /**
+     * Adds the {@code Subject} object passed as parameter to the {@code schoolSubjects} ArrayList.
+     *
+     * @param subject                 the subject to be added to the schoolSubjects ArrayList
+     * @throws InvalidInputException    If the students of the School are kept in a student store
+     */
+    public void add(Subject subject) {
+        checkSubjectsCanChange();
+        schoolSubjects.add(subject);
+        subjectsById.putIfAbsent(subject.getID(), subject);
+        prerequisiteGraph = null;
+    }
+
+    /**
+     * Removes the {@code Subject} object passed as parameter from the {@code schoolSubjects} ArrayList, together with
+     * its open courses and its waitlist.
+     *
+     * @param subject                 the subject to be removed from the schoolSubjects ArrayList
+     * @throws InvalidInputException    If the students of the School are kept in a student store
+     */
+    public void remove(Subject subject) {
+        checkSubjectsCanChange();
+        if (!schoolSubjects.remove(subject)) {
+            return;
+        }
+        openCourses.remove(subject);
+        if (subjectsById.get(subject.getID()) == subject) {
+            subjectsById.remove(subject.getID());
+            for (Subject otherSubject : schoolSubjects) {
+                if (otherSubject.getID() == subject.getID()) {
+                    subjectsById.put(otherSubject.getID(), otherSubject);
+                    break;
+                }
+            }
+        }
+
+        // The waitlists are kept by position in the graph, so they are all built again with the graph.
+        waitlists.clear();
+        prerequisiteGraph = null;
+    }
+
+    /**
+     * Returns the {@link PrerequisiteGraph} of the subjects of the School. The graph is built again the first time it
+     * is needed after a subject has been added or removed, and each student of the School is then given the new graph
+     * to work out the subjects they can take. As the waitlists are kept by position in the graph, they are emptied and
+     * the students join them again in the order they joined the School.
+     *
+     * @return the prerequisites of the subjects of the School
+     */
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        if (prerequisiteGraph == null) {
+            prerequisiteGraph = new PrerequisiteGraph(schoolSubjects);
+            waitlists = new ArrayList<>(prerequisiteGraph.size());
+            for (int position = 0; position < prerequisiteGraph.size(); position++) {
+                waitlists.add(new ArrayDeque<>());
+            }
+            for (Student student : schoolStudents) {
+                student.setPrerequisiteGraph(prerequisiteGraph);
+            }
+            changedStudents.addAll(schoolStudents);
+        }
+        return prerequisiteGraph;
+    }
+
+    /**
+     * Checks that the subjects of the School can be added or removed, i.e. that the certificates of the students are
+     * not kept in a student store by the indexes of the current {@link PrerequisiteGraph}.
+     *
+     * @throws InvalidInputException    If the students of the School are kept in a student store
+     */
+    private void checkSubjectsCanChange() {
+        if (studentStore != null) {
+            throw new InvalidInputException("The subjects of a school cannot be changed once it has a student store.\n");
+        }
+    }
+
+    /**
+     * School's {@code schoolSubjects} ArrayList accessor method.
+     *
+     * @return the ArrayList containing all the subjects taught in the School
+     */
+    public ArrayList<Subject> getSubjects() {
+        return schoolSubjects;
+    }
+
+    /**
+     * Returns the indexes of the IDs of all the subjects taught in the School as a {@link SubjectSet} (see
+     * {@link PrerequisiteGraph#getIndex(int)}), e.g. to check whether a {@link Student} has obtained the certificates
+     * for all of them.
+     *
+     * @return the set of the indexes of the IDs of the subjects taught in the School
+     */
+    public SubjectSet getSubjectIndexes() {
+        return getPrerequisiteGraph().getSubjectIndexes();
+    }
+
+
+    // Course manager methods
+
+    /**
+     * Adds the {@code Course} object passed as parameter to the {@code schoolCourses} ArrayList, and to the open courses
+     * of its {@link Subject} if it has free seats.
+     *
+     * @param course       the course to be added to the schoolCourses ArrayList
+     */
+    public void add(Course course) {
+        schoolCourses.add(course);
+        course.setSchool(this);
+        if (eventDriven) {
+            follow(course);
+        }
+        if (!course.isFull()) {
+            openCourses.computeIfAbsent(course.getSubject(), subject -> new LinkedHashSet<>()).add(course);
+        }
+        if (!course.hasInstructor()) {
+            unstaffedCourses.add(course);
+        }
+    }
+
+    /**
+     * Removes the {@code Course} object passed as parameter from the {@code schoolCourses} ArrayList and from the
+     * {@link Subject} indexes.
+     *
+     * @param course       the course to be removed from the schoolCourses ArrayList
+     */
+    public void remove(Course course) {
+        schoolCourses.remove(course);
+        unindex(course);
+        if (eventDriven) {
+            courseEvents.removeIf(event -> event.course == course);
+        }
+    }
+
+    /**
+     * Makes the {@code Course} passed as parameter follow the day of the school, and queues its next start or end.
+     * The courses are numbered in the order they start following the day, so that the courses starting or ending on
+     * the same day advance in the same order as in {@code schoolCourses}.
+     *
+     * @param course       the course of the school to follow the day
+     */
+    private void follow(Course course) {
+        course.followClock(day);
+        courseEvents.add(new CourseEvent(course, coursesFollowed++));
+    }
+
+    /**
+     * Removes the {@code Course} object passed as parameter from the {@code openCourses} and {@code unstaffedCourses}
+     * indexes.
+     *
+     * @param course       the course to be removed from the indexes
+     */
+    private void unindex(Course course) {
+        LinkedHashSet<Course> subjectOpenCourses = openCourses.get(course.getSubject());
+        if (subjectOpenCourses != null) {
+            subjectOpenCourses.remove(course);
+        }
+        unstaffedCourses.remove(course);
+    }
+
+    /**
+     * Returns the courses of the School about the {@link Subject} passed as parameter that still have free seats, in
+     * the order they were created. The returned set is a read-only view, kept up to date as courses are added, filled
+     * and removed.
+     *
+     * @param subject       the subject of the courses
+     * @return the set of courses about the subject that are not full (empty if there are none)
+     */
+    public Set<Course> getOpenCourses(Subject subject) {
+        LinkedHashSet<Course> subjectOpenCourses = openCourses.get(subject);
+        return subjectOpenCourses == null ? Collections.emptySet() : Collections.unmodifiableSet(subjectOpenCourses);
+    }
+
+    /**
+     * School's {@code schoolCourses} ArrayList accessor method.
+     *
+     * @return the ArrayList containing all the courses taught in the School
+     */
+    public ArrayList<Course> getCourses() {
+        removeEndedCourses();
+        return schoolCourses;
+    }
+
+    /**
+     * Removes from {@code schoolCourses} the courses that ended in an event-driven school (see
+     * {@link #setEventDriven(boolean)}), which are only removed in a single pass when the courses are read, or when
+     * they are more than half of them.
+     */
+    private void removeEndedCourses() {
+        if (!endedCoursesToRemove.isEmpty()) {
+            schoolCourses.removeIf(endedCoursesToRemove::contains);
+            endedCoursesToRemove.clear();
+        }
+    }
+
+
+    // Instructor manager methods
+
+    /**
+     * Adds the {@code Instructor} object passed as parameter to the {@code schoolInstructors} ArrayList.
+     *
+     * @param instructor       the instructor to be added to the schoolInstructors ArrayList
+     */
+    public void add(Instructor instructor) {
+        schoolInstructors.add(instructor);
+        hiredInstructors.add(instructor);
+        makeAvailable(instructor);
+    }
+
+    /**
+     * Removes the {@code Instructor} object passed as parameter from the {@code schoolInstructors} ArrayList.
+     *
+     * @param instructor       the instructor to be removed from the schoolInstructors ArrayList
+     */
+    public void remove(Instructor instructor) {
+        schoolInstructors.remove(instructor);
+        hiredInstructors.remove(instructor);
+        makeUnavailable(instructor);
+    }
+
+    /**
+     * Removes all the instructors satisfying the {@code filter} passed as parameter from the {@code schoolInstructors}
+     * ArrayList, in a single pass over it.
+     *
+     * @param filter        the condition the instructors to remove satisfy
+     * @return the number of instructors removed from the School
+     */
+    public int removeInstructorsIf(Predicate<Instructor> filter) {
+        int instructorsBefore = schoolInstructors.size();
+        schoolInstructors.removeIf(instructor -> {
+            if (filter.test(instructor)) {
+                hiredInstructors.remove(instructor);
+                makeUnavailable(instructor);
+                return true;
+            }
+            return false;
+        });
+        return instructorsBefore - schoolInstructors.size();
+    }
+
+    /**
+     * Removes all the instructors in the {@code Collection} passed as parameter from the {@code schoolInstructors}
+     * ArrayList, in a single pass over it.
+     *
+     * @param instructors   the instructors to be removed from the schoolInstructors ArrayList
+     * @return the number of instructors removed from the School
+     */
+    public int removeAllInstructors(Collection<Instructor> instructors) {
+        HashSet<Instructor> leavingInstructors = new HashSet<>(instructors);
+        return removeInstructorsIf(leavingInstructors::contains);
+    }
+
+    /**
+     * School's {@code schoolInstructors} ArrayList accessor method.
+     *
+     * @return the ArrayList containing all the instructors of the School
+     */
+    public ArrayList<Instructor> getInstructors() {
+        return schoolInstructors;
+    }
+
+    /**
+     * Returns the instructors of the School that can teach the subjects of the {@code specialism} passed as parameter
+     * and can still be assigned one more course. The pool of a specialism is built the first time it is needed, and
+     * then kept up to date when instructors are hired, leave, or are assigned to or released from a course.
+     *
+     * @param specialism        the specialism ID of the subjects to teach
+     * @return the set of instructors available to teach the specialism, in the order they became available
+     */
+    public LinkedHashSet<Instructor> getAvailableInstructors(int specialism) {
+        LinkedHashSet<Instructor> instructors = availableInstructors.get(specialism);
+        if (instructors == null) {
+            instructors = new LinkedHashSet<>();
+            for (Instructor instructor : schoolInstructors) {
+                if (instructor.getAssignedCourses().size() < maxAssignableCourses && instructor.canTeach(specialism)) {
+                    instructors.add(instructor);
+                }
+            }
+            availableInstructors.put(specialism, instructors);
+        }
+        return instructors;
+    }
+
+    /**
+     * Returns the specialisms whose pool of available instructors has already been built by
+     * {@link #getAvailableInstructors(int)}.
+     *
+     * @return the read-only set of the specialisms with a pool of available instructors
+     */
+    public Set<Integer> getAvailableSpecialisms() {
+        return Collections.unmodifiableSet(availableInstructors.keySet());
+    }
+
+    /**
+     * Adds the {@link Instructor} passed as parameter to the pools of available instructors of every specialism they
+     * can teach, if they can still be assigned one more course.
+     *
+     * @param instructor        the instructor to make available
+     */
+    private void makeAvailable(Instructor instructor) {
+        if (instructor.getAssignedCourses().size() < maxAssignableCourses) {
+            for (Integer specialism : availableInstructors.keySet()) {
+                if (instructor.canTeach(specialism)) {
+                    availableInstructors.get(specialism).add(instructor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes the {@link Instructor} passed as parameter from the pools of available instructors.
+     *
+     * @param instructor        the instructor to make unavailable
+     */
+    private void makeUnavailable(Instructor instructor) {
+        for (LinkedHashSet<Instructor> instructors : availableInstructors.values()) {
+            instructors.remove(instructor);
+        }
+    }
+
+    /**
+     * Returns a pretty-print string of the {@code School}, containing all the details about each {@link Subject},
+     * {@link Course}, {@link Instructor} and {@link Student} of the {@link School}.
+     *
+     * @return a table-formatted string containing information about school's subjects, courses, instructors, students and the
+     *         relationships between them
+     */
+    @Override
+    public String toString() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeReport(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Writes the same pretty-print report of the {@code School} returned by {@link #toString()} to the
+     * {@link Appendable} passed as parameter (e.g. a {@link java.io.BufferedWriter}), streaming it one row at a time
+     * instead of building it as a single string.
+     *
+     * @param out               the output to write the report to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    public void writeReport(Appendable out) throws IOException {
+        Formatter formatter = new Formatter(out);
+        writeReport(formatter);
+        if (formatter.ioException() != null) {
+            throw formatter.ioException();
+        }
+    }
+
+    /**
+     * Writes the pretty-print report of the {@code School} to the {@link Formatter} passed as parameter.
+     *
+     * @param formatter         the formatter to write the report to
+     */
+    private void writeReport(Formatter formatter) {
+        String separator = "\n**********************************************************************************************************\n\n";
+
+        formatter.format("                                  Welcome to %s\n", schoolName);
+        formatter.format("Below you can find a detailed list of all the Subjects, Courses, Instructors and Students of our school.\n\n\n");
+        writeSubjectDetails(formatter);
+        formatter.format(separator);
+        writeCoursesDetails(formatter);
+        formatter.format(separator);
+        writeInstructorsDetails(formatter);
+        formatter.format(separator);
+        writeStudentsDetails(formatter);
+        formatter.format(separator);
+    }
+
+    /**
+     * Returns a one-line summary of the {@code School}'s counters: the number of subjects, courses, instructors,
+     * students and students enrolled in at least one course. It is much cheaper to build than {@link #toString()}.
+     *
+     * @return a string containing the number of subjects, courses, instructors, students and active students
+     */
+    public String getSummary() {
+        return "Subjects: " + schoolSubjects.size() + ", Courses: " + getCourses().size() + ", Instructors: " +
+                schoolInstructors.size() + ", Students: " + getStudentCount() + " (" + getActiveStudentCount() +
+                " active)";
+    }
+
+    /**
+     * Returns the number of students of the school, including the ones kept in the {@link StudentStore} (if any).
+     *
+     * @return the number of students of the school
+     */
+    public int getStudentCount() {
+        return schoolStudents.size() + (studentStore == null ? 0 : studentStore.size());
+    }
+
+    /**
+     * Returns the number of students of the school enrolled in at least one course, including the ones kept in the
+     * {@link StudentStore} (if any).
+     *
+     * @return the number of active students of the school
+     */
+    public int getActiveStudentCount() {
+        return activeStudents.size() + (studentStore == null ? 0 : studentStore.getActiveCount());
+    }
+
+    /**
+     * Iterates over the {@code schoolSubjects} ArrayList and returns each {@link Subject}'s {@code name}, {@code ID}, {@code specialism},
+     * {@code duration} and {@code prerequisites}.
+     *
+     * @return a table-formatted string containing all subjects' names, IDs, specialisms and durations (in days)
+     */
+    public String extractSubjectDetails() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeSubjectDetails(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Writes each {@link Subject}'s details, as returned by {@link #extractSubjectDetails()}, to the {@link Formatter}
+     * passed as parameter.
+     *
+     * @param formatter         the formatter to write the subjects' details to
+     */
+    private void writeSubjectDetails(Formatter formatter) {
+
+        // Puts the subjects properties' titles in the first row of the table-formatted output.
+        formatter.format("                                               SUBJECTS\n\n");
+        formatter.format("%-15s %9s %22s %20s %25s%n", "Name:", "Subject ID:", "Specialism:", "Duration:",
+                "Prerequisites:");
+
+        // Iterates over the Subjects array list and writes out each subject's name, id, specialism and duration.
+        for (Subject subject : schoolSubjects) {
+            subject.writeDetails(formatter);
+        }
+    }
+
+    /**
+     * Iterates over the {@code schoolCourses} ArrayList and returns each {@link Course}'s {@code subject}, {@code status},
+     * {@code courseInstructor}, and {@code enrolledStudents}.
+     *
+     * @return a table-formatted string containing all courses' subjects, statuses, instructors and enrolled students
+     */
+    public String extractCoursesDetails() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeCoursesDetails(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Writes each {@link Course}'s details, as returned by {@link #extractCoursesDetails()}, to the {@link Formatter}
+     * passed as parameter.
+     *
+     * @param formatter         the formatter to write the courses' details to
+     */
+    private void writeCoursesDetails(Formatter formatter) {
+
+        // Puts the courses properties' titles in the first row of the table-formatted output.
+        formatter.format("                                                COURSES\n\n");
+        formatter.format("%-30s %25s %15s %25s%n", "Subject:", "Status:", "Instructor:", "Enrolled Students:");
+
+        /* Iterates over the Courses array list and writes out each course's subject, status, instructor and enrolled
+        students. */
+        for (Course course : getCourses()) {
+            course.writeDetails(formatter);
+        }
+    }
+
+    /**
+     * Iterates over the {@code schoolInstructors} ArrayList and returns each {@link Instructor}'s {@code name},
+     * {@code gender}, {@code age}, {@code type} and {@code assignedCourse}.
+     *
+     * @return a table-formatted string containing all instructors' names, gender, ages, types and assigned courses
+     */
+    public String extractInstructorsDetails() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeInstructorsDetails(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Writes each {@link Instructor}'s details, as returned by {@link #extractInstructorsDetails()}, to the
+     * {@link Formatter} passed as parameter.
+     *
+     * @param formatter         the formatter to write the instructors' details to
+     */
+    private void writeInstructorsDetails(Formatter formatter) {
+
+        // Puts the instructors properties' titles in the first row of the table-formatted output.
+        formatter.format("                                                INSTRUCTORS\n\n");
+        formatter.format("%-20s %4s %15s %26s %26s%n", "Name:", "Gender:", "Age:", "Instructor Type:",
+                "Assigned Course:");
+
+        /* Iterates over the Instructors array list and writes out each instructor's name, gender, age, type and assigned
+        course. */
+        for (Instructor instructor : schoolInstructors) {
+            instructor.writeDetails(formatter);
+        }
+    }
+
+    /**
+     * Iterates over the {@code schoolStudents} ArrayList and returns each {@link Student}'s {@code name},
+     * {@code gender}, {@code age}, {@code certificates} and {@code enrolledCourses}.
+     *
+     * @return a table-formatted string containing all students' names, gender, ages, certificates and enrolled courses
+     */
+    public String extractStudentsDetails() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeStudentsDetails(formatter);
+        return formatter.toString();
+    }
+
+    /**
+     * Writes each {@link Student}'s details, as returned by {@link #extractStudentsDetails()}, to the {@link Formatter}
+     * passed as parameter.
+     *
+     * @param formatter         the formatter to write the students' details to
+     */
+    private void writeStudentsDetails(Formatter formatter) {
+
+        // Puts the students properties' titles in the first row of the table-formatted output.
+        formatter.format("                                                STUDENTS\n\n");
+        formatter.format("%-20s %4s %15s %26s %26s%n", "Name:", "Gender:", "Age:", "Certificates ID:",
+                "Enrolled Course:");
+
+        /* Iterates over the Students array list and writes out each students's name, gender, age, enrolled course and
+        certificates. */
+        for (Student student : schoolStudents) {
+            student.writeDetails(formatter);
+        }
+        if (studentStore != null) {
+            for (int row = 0; row < studentStore.getRowCount(); row++) {
+                if (studentStore.isLive(row)) {
+                    writeStoredStudentDetails(row, formatter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the details of the student in the row of the {@code studentStore} passed as parameter, in the same format
+     * as {@link Student#writeDetails(Formatter)}. The certificates are written in ascending order of subject ID.
+     *
+     * @param row               the row of the student in the student store
+     * @param formatter         the formatter to write the student's name, gender, age, certificates and courses to
+     */
+    private void writeStoredStudentDetails(int row, Formatter formatter) {
+        formatter.format("%-20s %5s %16s", studentStore.getName(row), studentStore.getGender(row),
+                studentStore.getAge(row));
+
+        StringBuilder certificateString = new StringBuilder();
+        SubjectSet certificates = studentStore.getCertificates(row);
+        int[] certificateIDs = new int[certificates.size()];
+        int count = 0;
+        for (int index = certificates.next(0); index >= 0; index = certificates.next(index + 1)) {
+            certificateIDs[count++] = getPrerequisiteGraph().getSubjectID(index);
+        }
+        Arrays.sort(certificateIDs);
+        for (int id : certificateIDs) {
+            certificateString.append(id).append(' ');
+        }
+        formatter.format("%22s", certificateString);
+
+        if (studentStore.getEnrolledCount(row) == 0) {
+            formatter.format("%32s%n", "Free");
+        } else {
+            boolean first = true;
+            for (int slot = 0; slot < maxEnrollableCourses; slot++) {
+                int subjectID = studentStore.getAttendedSubject(row, slot);
+                if (subjectID >= 0) {
+                    formatter.format(first ? "%32s%n" : "%97s%n", getSubject(subjectID).getDescription());
+                    first = false;
+                }
+            }
+        }
+        formatter.format("\n");
+    }
+
+    /**
+     * Returns the {@link Subject} of the School with the ID passed as parameter.
+     *
+     * @param subjectID     the ID of the subject
+     * @return the subject with that ID, or null if it is not taught in the School
+     */
+    public Subject getSubject(int subjectID) {
+        return subjectsById.get(subjectID);
+    }
+
+    /**
+     * Simulates the events of a day at school, which are the following.
+     * <ol><li> For any topic that does not have an open-for-registration course, creates a new course for that subject
+     *          to start in 2 days. </li>
+     *
+     *     <li> Assigns instructors and students to courses:
+     *          <ul><li>Looks at each course that requires an instructor, and goes through the instructors until
+     *                  you finds one that is free (i.e., not already teaching other courses), and can teach the course.
+     *                  Assigns the {@link Instructor} to the {@link Course}. </li>
+     *             <li> Look at each student, if they are free, (i.e., not enrolled in any course) goes through
+     *                  the courses until it finds one that the student can join (e.g., not already full and the student
+     *                  has not got the certificate). </li></ul>
+     *     <li> Let the student learn (calls aDayPasses() on each course).</li>
+     *     <li> At the end of the day, removes any course that is cancelled or already finished.</li>/<ol>
+     */
+    public void aDayAtSchool() {
+
+        /* Creates new courses, assigns instructors to courses that need one and students to empty courses, then lets
+        the students learn and removes ended courses, timing each phase. */
+        metrics.time(SimulationMetrics.Phase.REFRESH_COURSES, this::coursesRefresh);
+        metrics.time(SimulationMetrics.Phase.STAFF_COURSES, this::assignInstructorToEachCourse);
+        metrics.time(SimulationMetrics.Phase.ENROL_FREE_STUDENTS, this::enrolFreeStudents);
+        metrics.time(SimulationMetrics.Phase.ADVANCE_COURSES, this::advanceCourses);
+    }
+
+    /**
+     * Lets the students learn, calling {@link Course#aDayPasses()} on each {@link Course}, then removes all the courses
+     * that are cancelled or finished in a single pass over {@code schoolCourses}. When the school is event-driven (see
+     * {@link #setEventDriven(boolean)}), only the courses starting or ending on the day advance, one at a time.
+     */
+    public void advanceCourses() {
+        day++;
+        if (eventDriven) {
+            advanceCourseEvents();
+            return;
+        }
+        removeEndedCourses();
+        for (Course course : schoolCourses) {
+            course.aDayPasses();
+        }
+
+        // Removes any course that is cancelled or finished, then removes them from the indexes too.
+        ArrayList<Course> endedCourses = new ArrayList<>();
+        schoolCourses.removeIf(course -> {
+            if (course.isCancelled() || course.getStatus() == 0) {
+                endedCourses.add(course);
+                return true;
+            }
+            return false;
+        });
+        unindexEnded(endedCourses);
+    }
+
+    /**
+     * Advances the courses starting or ending on the current day, in the order of {@code schoolCourses}, and queues
+     * their next start or end. The courses that are cancelled or finished are removed from the indexes straight away,
+     * but from {@code schoolCourses} only when the courses are next read (see {@link #getCourses()}), or when they
+     * are more than half of them, so that the days on which nothing is read never go through all the courses.
+     */
+    private void advanceCourseEvents() {
+        ArrayList<Course> newlyEndedCourses = new ArrayList<>();
+        while (!courseEvents.isEmpty() && courseEvents.peek().day <= day) {
+            CourseEvent event = courseEvents.poll();
+            event.course.advanceTo(day);
+            if (event.course.isCancelled() || event.course.getStatus() == 0) {
+                newlyEndedCourses.add(event.course);
+            } else {
+                event.day = event.course.getEventDay();
+                courseEvents.add(event);
+            }
+        }
+
+        // Removes the ended courses from the indexes now, and from schoolCourses when they are read or pile up.
+        unindexEnded(newlyEndedCourses);
+        endedCoursesToRemove.addAll(newlyEndedCourses);
+        if (endedCoursesToRemove.size() > schoolCourses.size() / 2) {
+            removeEndedCourses();
+        }
+    }
+
+    /**
+     * Removes the courses passed as parameter, which are cancelled or finished, from the indexes, and counts them in the
+     * metrics.
+     *
+     * @param endedCourses      the courses that are cancelled or finished
+     */
+    private void unindexEnded(ArrayList<Course> endedCourses) {
+        for (Course course : endedCourses) {
+            unindex(course);
+            metrics.increment(course.isCancelled() ? SimulationMetrics.Counter.COURSES_CANCELLED
+                                                   : SimulationMetrics.Counter.COURSES_FINISHED);
+        }
+    }
+
+    /**
+     * The next start or end of a {@link Course} of an event-driven school. The events are ordered by day, then by the
+     * order in which their courses started following the day.
+     */
+    private static class CourseEvent implements Comparable<CourseEvent> {
+        private final Course course;                    // The course starting or ending.
+        private final long order;                       // The order in which the course started following the day.
+        private int day;                                // The day on which the course starts or ends.
+
+        CourseEvent(Course course, long order) {
+            this.course = course;
+            this.order = order;
+            day = course.getEventDay();
+        }
+
+        @Override
+        public int compareTo(CourseEvent other) {
+            if (day != other.day) {
+                return Integer.compare(day, other.day);
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * For any {@link Subject} in {@code schoolSubjects} that does not have an open-for-registration course, creates a
+     * new course that starts after the lead time of the subject (see {@link Subject#getLeadTime()}).
+     */
+    public void coursesRefresh() {
+
+        /* Iterates over each school's subject and, if there is no course for that subject with free seats left (i.e. all
+        the courses for that subject are full), creates a new course. */
+        for (Subject subject : getSubjects()) {
+            if (getOpenCourses(subject).isEmpty()) {
+                Course newCourse = new Course(subject, subject.getLeadTime());
+                add(newCourse);
+                metrics.increment(SimulationMetrics.Counter.COURSES_CREATED);
+            }
+        }
+    }
+
+    /**
+     * Iterates over each {@link Course} in {@code schoolCourses} and assigns an {@link Instructor} to the courses that
+     * don't have one.
+     */
+    public void assignInstructorToEachCourse() {
+
+        /* Looks at each course that has no instructor and takes the first available instructor that can teach the
+        course's subject, if any. If so, it assigns this instructor to the course and, if the instructor has reached the
+        maximum number of courses that can be assigned, removes them from the available instructors. The courses that
+        have been given an instructor some other way (e.g. by Course#setInstructor) are only taken off the list. */
+        Iterator<Course> iterator = unstaffedCourses.iterator();
+        while (iterator.hasNext()) {
+            Course course = iterator.next();
+            if (course.hasInstructor()) {
+                iterator.remove();
+                continue;
+            }
+            LinkedHashSet<Instructor> instructors = getAvailableInstructors(course.getSubject().getSpecialism());
+
+            if (!instructors.isEmpty()) {
+                Instructor instructor = instructors.iterator().next();
+                if (!course.setInstructor(instructor)) {
+                    continue;
+                }
+                instructor.assignCourse(course);
+                iterator.remove();
+                if (instructor.getAssignedCourses().size() >= maxAssignableCourses) {
+                    makeUnavailable(instructor);
+                }
+            }
+        }
+    }
+
+    /**
+     * Enrols the {@link Student}s waiting for a seat in the courses of each {@link Subject} that still have free seats,
+     * in the order they joined the waitlist of the subject (see {@link #getWaitlist(Subject)}).
+     */
+    public void enrolFreeStudents() {
+
+        /* Brings the waitlists up to date with the students that have joined the school, graduated or been released
+        from a course since the last time, then goes through the subjects in the order they were added to the school.
+        The students at the head of the waitlist of each subject with free seats are given a seat in the first course
+        that still has one, and the students given a seat in each course are enrolled in it as a single batch, which
+        takes them off the waitlists. Only the students that can be placed are looked at. */
+        PrerequisiteGraph graph = getPrerequisiteGraph();
+        updateWaitlists();
+        for (int position = 0; position < graph.size(); position++) {
+            Subject subject = graph.getSubject(position);
+            ArrayDeque<Student> waitlist = waitlists.get(position);
+            if (waitlist.isEmpty()) {
+                continue;
+            }
+
+            // Copies the open courses, as enrolStudents() removes the courses from them once they are full.
+            Course[] courses = getOpenCourses(subject).toArray(new Course[0]);
+            ArrayList<ArrayList<Student>> batches = new ArrayList<>(courses.length);
+            int course = 0;
+            while (course < courses.length && !waitlist.isEmpty()) {
+                if (batches.size() == course) {
+                    batches.add(new ArrayList<>());
+                }
+                if (batches.get(course).size() == courses[course].getFreeSeats()) {
+                    course++;
+                    continue;
+                }
+
+                // Takes the student off the waitlist, and gives them the seat only if they can still take it.
+                Student student = waitlist.poll();
+                if (student.getWaitlistedSubjects().contains(position)) {
+                    student.getWaitlistedSubjects().remove(position);
+                    if (canEnrol(student, position)) {
+                        batches.get(course).add(student);
+                    }
+                }
+            }
+            for (int i = 0; i < batches.size(); i++) {
+                if (!batches.get(i).isEmpty()) {
+                    courses[i].enrolStudents(batches.get(i));
+                }
+            }
+        }
+        if (studentStore != null) {
+            enrolFreeStoredStudents();
+        }
+    }
+
+    /**
+     * Iterates over each row of the {@code studentStore} and, if possible, enrols the student in a new {@link Course},
+     * with the same rules as {@link #enrolFreeStudents()} but reading the columns of the store.
+     */
+    private void enrolFreeStoredStudents() {
+
+        /* Looks the open courses of each subject up once, and counts their free seats, so that the rows are only scanned
+        until all the seats are taken. The subjects are checked in the order of the graph, i.e. of schoolSubjects. */
+        PrerequisiteGraph graph = getPrerequisiteGraph();
+        ArrayList<Set<Course>> subjectsOpenCourses = new ArrayList<>(schoolSubjects.size());
+        int freeSeats = 0;
+        for (Subject subject : schoolSubjects) {
+            Set<Course> subjectOpenCourses = getOpenCourses(subject);
+            subjectsOpenCourses.add(subjectOpenCourses);
+            for (Course course : subjectOpenCourses) {
+                freeSeats += course.getFreeSeats();
+            }
+        }
+
+        int rowCount = studentStore.getRowCount();
+        for (int row = 0; row < rowCount && freeSeats > 0; row++) {
+            if (!studentStore.isLive(row)) {
+                continue;
+            }
+            for (int i = 0; i < schoolSubjects.size(); i++) {
+                if (studentStore.getEnrolledCount(row) >= maxEnrollableCourses) {
+                    break;
+                }
+
+                // Looks at the open courses first, as most subjects have no free seats left once the store is large.
+                Subject subject = schoolSubjects.get(i);
+                Set<Course> subjectOpenCourses = subjectsOpenCourses.get(i);
+                if (subjectOpenCourses.isEmpty() ||
+                        studentStore.hasCertificate(row, graph.getSubjectIndex(i)) ||
+                        studentStore.isAttending(row, subject.getID()) ||
+                        !studentStore.hasCertificates(row, graph.getPrerequisiteMask(i))) {
+                    continue;
+                }
+                for (Course course : subjectOpenCourses) {
+                    if (course.enrolStoredStudent(row)) {
+                        freeSeats--;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of courses the {@link Student} passed as parameter is enrolled in.
+     *
+     * @param student       the students we want to know the courses that is enrolled in
+     * @return the number of courses a students is enrolled in
+     */
+    public int getNumberOfEnrolledCourses(Student student) {
+        return enrolledCoursesCount.getOrDefault(student, 0);
+    }
+
+
+    // Waitlist methods.
+
+    /**
+     * Returns the {@link Student}s waiting for a seat in a course of the {@link Subject} passed as parameter, in the
+     * order they joined the waitlist: the students that could take the subject and were not studying it when they
+     * joined. A student joins the waitlist when they join the School, graduate from a prerequisite of the subject or
+     * are released from a course (e.g. because it has been cancelled), and leaves it when it is their turn: they are
+     * then enrolled if they can still take the subject and enrol in one more course, and dropped otherwise.
+     * The students that have joined, graduated or been released since the last call to {@link #enrolFreeStudents()}
+     * are not in the waitlists yet.
+     *
+     * @param subject       the subject the students are waiting for
+     * @return a new ArrayList of the students of the School in the waitlist of the subject
+     */
+    public ArrayList<Student> getWaitlist(Subject subject) {
+        ArrayList<Student> waitingStudents = new ArrayList<>();
+        int position = getPosition(subject);
+        if (position >= 0) {
+            for (Student student : waitlists.get(position)) {
+                if (student.getWaitlistedSubjects().contains(position) && enrolledCoursesCount.containsKey(student)) {
+                    waitingStudents.add(student);
+                }
+            }
+        }
+        return waitingStudents;
+    }
+
+    /**
+     * Appends the {@link Student}s passed as parameter to the waitlist of the {@link Subject} passed as parameter
+     * without any checks, e.g. when the School is read back from a {@link SchoolSnapshot}.
+     *
+     * @param subject       the subject the students are waiting for
+     * @param students      the students waiting for the subject, in the order they joined the waitlist
+     */
+    public void restoreWaitlist(Subject subject, Collection<Student> students) {
+        int position = getPosition(subject);
+        if (position < 0) {
+            throw new InvalidInputException("The subject " + subject.getDescription() + " is not taught in the school.\n");
+        }
+        for (Student student : students) {
+            student.getWaitlistedSubjects().add(position);
+            waitlists.get(position).add(student);
+        }
+    }
+
+    /**
+     * Returns the position of the {@link Subject} passed as parameter in the {@link PrerequisiteGraph} of the School,
+     * which is also the position of its waitlist.
+     *
+     * @param subject       the subject to look for
+     * @return the position of the subject, or -1 if it is not taught in the School
+     */
+    private int getPosition(Subject subject) {
+        PrerequisiteGraph graph = getPrerequisiteGraph();
+        int position = graph.getPosition(subject.getID());
+        return position >= 0 && graph.getSubject(position) == subject ? position : -1;
+    }
+
+    /**
+     * Puts the students that have joined the School, graduated or been released from a course since the last update
+     * in the waitlists of the subjects they can now take, in the order they joined the School, so that the waitlists
+     * do not depend on the order the courses were advanced in.
+     */
+    private void updateWaitlists() {
+        if (changedStudents.isEmpty()) {
+            return;
+        }
+
+        // Sorts the students by admission number, packing each number with the index of its student.
+        Student[] students = changedStudents.toArray(new Student[0]);
+        changedStudents.clear();
+        long[] order = new long[students.length];
+        for (int i = 0; i < students.length; i++) {
+            order[i] = admissionNumbers.get(students[i]) * students.length + i;
+        }
+        Arrays.sort(order);
+        for (long admission : order) {
+            joinWaitlists(students[(int) (admission % students.length)]);
+        }
+    }
+
+    /**
+     * Appends the {@link Student} passed as parameter to the waitlists of the subjects they can take and are not
+     * studying yet, unless they have reached the maximum number of courses they can enrol in. The student keeps their
+     * place in the waitlists they are already in.
+     *
+     * @param student       the student joining the waitlists
+     */
+    private void joinWaitlists(Student student) {
+        if (getNumberOfEnrolledCourses(student) >= maxEnrollableCourses) {
+            return;
+        }
+        SubjectSet eligibleSubjects = student.getEligibleSubjects();
+        SubjectSet waitlistedSubjects = student.getWaitlistedSubjects();
+
+        // Only looks at the subjects the student can take but is not waiting for, a word of positions at a time.
+        for (int word = 0; word < eligibleSubjects.getWordCount(); word++) {
+            long missing = eligibleSubjects.getWord(word) & ~waitlistedSubjects.getWord(word);
+            while (missing != 0) {
+                int position = (word << 6) + Long.numberOfTrailingZeros(missing);
+                missing &= missing - 1;
+                if (student.isAttending(prerequisiteGraph.getSubject(position))) {
+                    continue;
+                }
+                waitlistedSubjects.add(position);
+                ArrayDeque<Student> waitlist = waitlists.get(position);
+                waitlist.add(student);
+
+                // Drops the students that have left the School, if they make up most of the waitlist.
+                if (waitlist.size() > 2 * schoolStudents.size() + 64) {
+                    waitlist.removeIf(waitingStudent -> !enrolledCoursesCount.containsKey(waitingStudent));
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether the {@link Student} passed as parameter, whose turn has come in the waitlist of the subject at the
+     * position passed as parameter, can still be enrolled in a course of that subject.
+     *
+     * @param student       the student in the waitlist
+     * @param position      the position of the subject in the prerequisite graph
+     * @return true if the student can take the subject and can enrol in one more course, false if the student has to
+     * be dropped from the waitlist
+     */
+    private boolean canEnrol(Student student, int position) {
+        return student.getAttendedCourse().size() < maxEnrollableCourses &&
+                student.getEligibleSubjects().contains(position);
+    }
+
+    /**
+     * Updates the enrolled courses index after the {@link Student} passed as parameter has been enrolled in a course of
+     * the {@link Subject} passed as parameter, and takes them off the waitlist of that subject.
+     *
+     * @param student       the student that has just been enrolled
+     * @param subject       the subject of the course
+     */
+    private void enrolled(Student student, Subject subject) {
+        Integer enrolledCourses = enrolledCoursesCount.computeIfPresent(student, (stud, count) -> count + 1);
+        if (enrolledCourses != null && enrolledCourses == 1) {
+            activeStudents.add(student);
+        }
+        if (prerequisiteGraph != null) {
+            student.getWaitlistedSubjects().remove(prerequisiteGraph.getPosition(subject.getID()));
+        }
+    }
+
+
+    // Course event handlers.
+
+    /**
+     * Updates the enrolled courses index after the {@link Student} passed as parameter has been enrolled in the
+     * {@link Course} passed as parameter, and removes the course from the open courses if it is now full. It is called
+     * by {@link Course#enrolStudent(Student)}.
+     *
+     * @param course        the course the student has just been enrolled in
+     * @param student       the student that has just been enrolled in the course
+     */
+    public void studentEnrolled(Course course, Student student) {
+        enrolled(student, course.getSubject());
+        courseEnrolled(course, 1);
+    }
+
+    /**
+     * Updates the enrolled courses index after the {@link Student}s passed as parameter have been enrolled in the
+     * {@link Course} passed as parameter as a single batch, and removes the course from the open courses if it is now
+     * full. It is called by {@link Course#enrolStudents(Collection)}.
+     *
+     * @param course        the course the students have just been enrolled in
+     * @param students      the students that have just been enrolled in the course
+     */
+    public void studentsEnrolled(Course course, List<Student> students) {
+        for (Student student : students) {
+            enrolled(student, course.getSubject());
+        }
+        courseEnrolled(course, students.size());
+    }
+
+    /**
+     * Counts an enrolment in the {@link Course} passed as parameter, and removes the course from the open courses if it
+     * is now full. It is called by {@link Course#enrolStoredStudent(int)} after a student of the {@code studentStore}
+     * has been enrolled in the course.
+     *
+     * @param course        the course a student has just been enrolled in
+     */
+    public void storedStudentEnrolled(Course course) {
+        courseEnrolled(course, 1);
+    }
+
+    /**
+     * Counts the {@code enrolments} passed as parameter in the {@link Course} passed as parameter, and removes the
+     * course from the open courses if it is now full, whether the students are kept as objects or in the
+     * {@code studentStore}.
+     *
+     * @param course        the course the students have just been enrolled in
+     * @param enrolments    the number of students that have just been enrolled in the course
+     */
+    private void courseEnrolled(Course course, int enrolments) {
+        metrics.add(SimulationMetrics.Counter.ENROLMENTS, enrolments);
+        removeIfFull(course);
+    }
+
+    /**
+     * Removes the {@link Course} passed as parameter from the open courses of its {@link Subject} if it is full.
+     *
+     * @param course        the course that has just had students enrolled in it
+     */
+    private void removeIfFull(Course course) {
+        if (course.isFull()) {
+            LinkedHashSet<Course> subjectOpenCourses = openCourses.get(course.getSubject());
+            if (subjectOpenCourses != null) {
+                subjectOpenCourses.remove(course);
+            }
+        }
+    }
+
+    /**
+     * Updates the enrolled courses index after the {@link Student} passed as parameter has been released from a
+     * {@link Course} of the School, because the course has either finished or been cancelled. It is called by
+     * {@link Course#aDayPasses()}.
+     *
+     * @param student       the student that has just been released from a course
+     */
+    public void studentReleased(Student student) {
+        Integer enrolledCourses = enrolledCoursesCount.computeIfPresent(student, (stud, count) -> count - 1);
+        if (enrolledCourses != null) {
+            changedStudents.add(student);
+            if (enrolledCourses == 0) {
+                activeStudents.remove(student);
+            }
+        }
+    }
+
+    /**
+     * Counts a graduation, after a student (kept as an object or in the {@code studentStore}) has obtained the
+     * certificate for the {@link Subject} of a {@link Course}. It is called by {@link Course#aDayPasses()} when the
+     * course finishes, before the student is released from it.
+     */
+    public void studentGraduated() {
+        metrics.increment(SimulationMetrics.Counter.GRADUATIONS);
+    }
+
+    /**
+     * Makes the {@link Instructor} passed as parameter available again after they have been unassigned from a
+     * {@link Course} of the School, because the course has either finished or been cancelled. It is called by
+     * {@link Course#aDayPasses()}.
+     *
+     * @param instructor    the instructor that has just been released from a course
+     */
+    public void instructorReleased(Instructor instructor) {
+        if (hiredInstructors.contains(instructor)) {
+            makeAvailable(instructor);
+        }
+    }
+}
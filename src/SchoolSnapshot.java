@@ -0,0 +1,439 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+
+/**
+ * This class defines a {@code SchoolSnapshot}, a compact binary image of a running {@link School} taken at the end of
+ * a day of the simulation, which can be saved to a file and read back to resume the simulation from that day.
+ * A snapshot contains the whole graph of the School: the {@link Subject}s with their prerequisites, the
+ * {@link Instructor}s and {@link Student}s (with their certificates), the {@link Course}s with their countdowns,
+ * instructor and enrolled students, the courses assigned to each instructor and attended by each student, the pools
+ * of available instructors, the waitlists of the subjects and the counters of the {@link SimulationMetrics}. Every
+ * object is written once and referenced by its index, so that the graph is rebuilt with a single sequential read.
+ * <p>
+ * The state of the random source of the simulation is not part of the snapshot: a resumed simulation is re-seeded.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SchoolSnapshot {
+    private static final int MAGIC = 0x5343484C;            // The first 4 bytes of every snapshot ("SCHL").
+    private static final int VERSION = 3;                   // The version of the snapshot format.
+    private static final int BUFFER_SIZE = 1 << 16;         // The size of the file buffers (64 KiB).
+
+    // The codes of the types of Instructor.
+    private static final byte TEACHER = 0;
+    private static final byte DEMONSTRATOR = 1;
+    private static final byte OO_TRAINER = 2;
+    private static final byte GUI_TRAINER = 3;
+
+    private School school;          // The school read from the snapshot.
+    private int day;                // The day of the simulation the snapshot was taken at.
+
+    /**
+     * Creates a new {@code SchoolSnapshot} object with the {@code school} and {@code day} passed as parameters.
+     *
+     * @param school        the school read from the snapshot
+     * @param day           the day of the simulation the snapshot was taken at
+     */
+    private SchoolSnapshot(School school, int day) {
+        this.school = school;
+        this.day = day;
+    }
+
+    /**
+     * SchoolSnapshot's {@code school} accessor method.
+     *
+     * @return the school read from the snapshot
+     */
+    public School getSchool() {
+        return school;
+    }
+
+    /**
+     * SchoolSnapshot's {@code day} accessor method.
+     *
+     * @return the day of the simulation the snapshot was taken at
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Saves a snapshot of the {@link School} passed as parameter to the file passed as parameter. The snapshot is first
+     * written to a temporary file, which then replaces the old one, so that an interrupted save never corrupts the
+     * last snapshot.
+     *
+     * @param school            the school to save
+     * @param day               the day of the simulation the snapshot is taken at
+     * @param fileName          the name of the file to save the snapshot to
+     * @throws IOException      If an I/O error occurs while writing the file
+     */
+    public static void save(School school, int day, String fileName) throws IOException {
+        Path file = Paths.get(fileName);
+        Path temporaryFile = Paths.get(fileName + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile),
+                BUFFER_SIZE))) {
+            write(school, day, out);
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot from the file passed as parameter.
+     *
+     * @param fileName                  the name of the file to read the snapshot from
+     * @return the snapshot, containing the restored school and the day it was taken at
+     * @throws IOException              If an I/O error occurs while reading the file
+     * @throws InvalidInputException    If the file is not a snapshot, or it was written in an unknown version
+     */
+    public static SchoolSnapshot load(String fileName) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(fileName)),
+                BUFFER_SIZE))) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the {@link School} passed as parameter to the {@link DataOutput} passed as parameter.
+     *
+     * @param school                    the school to write
+     * @param day                       the day of the simulation the snapshot is taken at
+     * @param out                       the output to write the snapshot to
+     * @throws IOException              If an I/O error occurs while writing to the output
+     * @throws InvalidInputException    If the school keeps its students in a {@link StudentStore}
+     */
+    public static void write(School school, int day, DataOutput out) throws IOException {
+        if (school.getStudentStore() != null) {
+            throw new InvalidInputException("Schools keeping their students in a student store cannot be saved.\n");
+        }
+        ArrayList<Subject> subjects = school.getSubjects();
+        ArrayList<Course> courses = school.getCourses();
+        ArrayList<Instructor> instructors = new ArrayList<>(school.getInstructors());
+        ArrayList<Student> students = new ArrayList<>(school.getStudents());
+
+        // Numbers every object of the graph, including the people that only appear in a course.
+        IdentityHashMap<Object, Integer> indexes = new IdentityHashMap<>();
+        index(subjects, indexes);
+        index(courses, indexes);
+        index(instructors, indexes);
+        index(students, indexes);
+        for (Course course : courses) {
+            if (course.hasInstructor() && !indexes.containsKey(course.getInstructor())) {
+                indexes.put(course.getInstructor(), instructors.size());
+                instructors.add(course.getInstructor());
+            }
+            for (Student student : course.getEnrolledStudents()) {
+                if (!indexes.containsKey(student)) {
+                    indexes.put(student, students.size());
+                    students.add(student);
+                }
+            }
+        }
+
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(day);
+        out.writeUTF(school.getName());
+        out.writeInt(school.getMaxEnrollableCourses());
+        out.writeInt(school.getMaxAssignableCourses());
+        for (SimulationMetrics.Counter counter : SimulationMetrics.Counter.values()) {
+            out.writeLong(school.getMetrics().get(counter));
+        }
+
+        out.writeInt(subjects.size());
+        for (Subject subject : subjects) {
+            out.writeInt(subject.getID());
+            out.writeInt(subject.getSpecialism());
+            out.writeInt(subject.getDuration());
+            writeString(subject.getDescription(), out);
+            SubjectList prerequisites = subject.getPrerequisites();
+            out.writeInt(prerequisites.size());
+            for (int j = 0; j < prerequisites.size(); j++) {
+                out.writeInt(prerequisites.get(j));
+            }
+            out.writeInt(subject.getCapacity());
+            out.writeInt(subject.getLeadTime());
+        }
+
+        out.writeInt(instructors.size());
+        out.writeInt(school.getInstructors().size());
+        for (Instructor instructor : instructors) {
+            out.writeByte(instructorType(instructor));
+            writePerson(instructor, out);
+        }
+
+        out.writeInt(students.size());
+        out.writeInt(school.getStudents().size());
+        for (Student student : students) {
+            writePerson(student, out);
+            SubjectList certificates = student.getCertificates();
+            out.writeInt(certificates.size());
+            for (int j = 0; j < certificates.size(); j++) {
+                out.writeInt(certificates.get(j));
+            }
+        }
+
+        out.writeInt(courses.size());
+        for (Course course : courses) {
+            out.writeInt(indexes.get(course.getSubject()));
+            out.writeInt(course.getDaysUntilStarts());
+            out.writeInt(course.getDaysToRun());
+            out.writeBoolean(course.isCancelled());
+            out.writeInt(course.hasInstructor() ? indexes.get(course.getInstructor()) : -1);
+            out.writeInt(course.getSize());
+            for (Student student : course.getEnrolledStudents()) {
+                out.writeInt(indexes.get(student));
+            }
+        }
+
+        // Writes the courses of each person in their own order, which is the order they are reported in.
+        for (Instructor instructor : instructors) {
+            writeIndexes(instructor.getAssignedCourses(), indexes, out);
+        }
+        for (Student student : students) {
+            writeIndexes(student.getAttendedCourse(), indexes, out);
+        }
+
+        // Writes the pools of available instructors, whose order decides which instructor is assigned next.
+        out.writeInt(school.getAvailableSpecialisms().size());
+        for (int specialism : school.getAvailableSpecialisms()) {
+            out.writeInt(specialism);
+            out.writeInt(school.getAvailableInstructors(specialism).size());
+            for (Instructor instructor : school.getAvailableInstructors(specialism)) {
+                out.writeInt(indexes.get(instructor));
+            }
+        }
+
+        // Writes the waitlist of each subject, whose order decides which students are enrolled next.
+        for (Subject subject : subjects) {
+            writeIndexes(school.getWaitlist(subject), indexes, out);
+        }
+    }
+
+    /**
+     * Reads a snapshot from the {@link DataInput} passed as parameter and rebuilds the {@link School} it contains.
+     *
+     * @param in                        the input to read the snapshot from
+     * @return the snapshot, containing the restored school and the day it was taken at
+     * @throws IOException              If an I/O error occurs while reading from the input
+     * @throws InvalidInputException    If the input is not a snapshot, or it was written in an unknown version
+     */
+    public static SchoolSnapshot read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new InvalidInputException("The file is not a snapshot of a school.\n");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new InvalidInputException("Unsupported snapshot version: " + version + ".\n");
+        }
+        int day = in.readInt();
+        School school = new School(in.readUTF());
+        school.setMaxEnrollableCourses(in.readInt());
+        school.setMaxAssignableCourses(in.readInt());
+        for (SimulationMetrics.Counter counter : SimulationMetrics.Counter.values()) {
+            school.getMetrics().add(counter, in.readLong());
+        }
+
+        Subject[] subjects = new Subject[in.readInt()];
+        for (int i = 0; i < subjects.length; i++) {
+            subjects[i] = new Subject(in.readInt(), in.readInt(), in.readInt());
+            subjects[i].setDescription(readString(in));
+            for (int prerequisites = in.readInt(); prerequisites > 0; prerequisites--) {
+                subjects[i].addPrerequisites(in.readInt());
+            }
+            subjects[i].setCapacity(in.readInt());
+            subjects[i].setLeadTime(in.readInt());
+        }
+
+        Instructor[] instructors = new Instructor[in.readInt()];
+        int hiredInstructors = in.readInt();
+        for (int i = 0; i < instructors.length; i++) {
+            byte type = in.readByte();
+            String name = readString(in);
+            char gender = in.readChar();
+            int age = in.readInt();
+            if (type == TEACHER) {
+                instructors[i] = new Teacher(name, gender, age);
+            } else if (type == DEMONSTRATOR) {
+                instructors[i] = new Demonstrator(name, gender, age);
+            } else if (type == OO_TRAINER) {
+                instructors[i] = new OOTrainer(name, gender, age);
+            } else if (type == GUI_TRAINER) {
+                instructors[i] = new GUITrainer(name, gender, age);
+            } else {
+                throw new InvalidInputException("Unknown instructor type in snapshot: " + type + ".\n");
+            }
+        }
+
+        Student[] students = new Student[in.readInt()];
+        int enrolledStudents = in.readInt();
+        for (int i = 0; i < students.length; i++) {
+            students[i] = new Student(readString(in), in.readChar(), in.readInt());
+            for (int certificates = in.readInt(); certificates > 0; certificates--) {
+                students[i].graduate(in.readInt());
+            }
+        }
+
+        Course[] courses = new Course[in.readInt()];
+        for (int i = 0; i < courses.length; i++) {
+            courses[i] = new Course(subjects[in.readInt()], 0);
+            courses[i].restoreState(in.readInt(), in.readInt(), in.readBoolean());
+            int instructor = in.readInt();
+            if (instructor >= 0) {
+                courses[i].setInstructor(instructors[instructor]);
+            }
+            for (int roster = in.readInt(); roster > 0; roster--) {
+                courses[i].restoreStudent(students[in.readInt()]);
+            }
+        }
+
+        for (Instructor instructor : instructors) {
+            for (int assignedCourses = in.readInt(); assignedCourses > 0; assignedCourses--) {
+                instructor.assignCourse(courses[in.readInt()]);
+            }
+        }
+        for (Student student : students) {
+            for (int attendedCourses = in.readInt(); attendedCourses > 0; attendedCourses--) {
+                student.addAttendedCourse(courses[in.readInt()]);
+            }
+        }
+
+        // Adds everything to the school once all the links are restored, so that its indexes are built correctly.
+        for (Subject subject : subjects) {
+            school.add(subject);
+        }
+        for (int i = 0; i < hiredInstructors; i++) {
+            school.add(instructors[i]);
+        }
+        for (int i = 0; i < enrolledStudents; i++) {
+            school.add(students[i]);
+        }
+        for (Course course : courses) {
+            school.add(course);
+        }
+        for (int specialisms = in.readInt(); specialisms > 0; specialisms--) {
+            LinkedHashSet<Instructor> availableInstructors = school.getAvailableInstructors(in.readInt());
+            availableInstructors.clear();
+            for (int available = in.readInt(); available > 0; available--) {
+                availableInstructors.add(instructors[in.readInt()]);
+            }
+        }
+        for (Subject subject : subjects) {
+            ArrayList<Student> waitlist = new ArrayList<>();
+            for (int waiting = in.readInt(); waiting > 0; waiting--) {
+                waitlist.add(students[in.readInt()]);
+            }
+            school.restoreWaitlist(subject, waitlist);
+        }
+        return new SchoolSnapshot(school, day);
+    }
+
+    /**
+     * Numbers the objects of the list passed as parameter in order, recording their indexes.
+     *
+     * @param objects       the objects to number
+     * @param indexes       the indexes of the objects numbered so far
+     */
+    private static void index(ArrayList<?> objects, IdentityHashMap<Object, Integer> indexes) {
+        for (int i = 0; i < objects.size(); i++) {
+            indexes.put(objects.get(i), i);
+        }
+    }
+
+    /**
+     * Returns the code of the type of the {@link Instructor} passed as parameter.
+     *
+     * @param instructor                the instructor
+     * @return the code of the type of the instructor
+     * @throws InvalidInputException    If the instructor is of an unknown type
+     */
+    private static byte instructorType(Instructor instructor) {
+        if (instructor.getClass() == Teacher.class) {
+            return TEACHER;
+        } else if (instructor.getClass() == Demonstrator.class) {
+            return DEMONSTRATOR;
+        } else if (instructor.getClass() == OOTrainer.class) {
+            return OO_TRAINER;
+        } else if (instructor.getClass() == GUITrainer.class) {
+            return GUI_TRAINER;
+        }
+        throw new InvalidInputException("Unknown instructor type: " + instructor.getClass().getName() + ".\n");
+    }
+
+    /**
+     * Writes the name, gender and age of the {@link Person} passed as parameter.
+     *
+     * @param person            the person to write
+     * @param out               the output to write the person to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    private static void writePerson(Person person, DataOutput out) throws IOException {
+        writeString(person.getName(), out);
+        out.writeChar(person.getGender());
+        out.writeInt(person.getAge());
+    }
+
+    /**
+     * Writes the indexes of the courses or people passed as parameter, skipping the ones that are no longer in the
+     * school.
+     *
+     * @param objects           the courses or people to write
+     * @param indexes           the indexes of the objects of the school
+     * @param out               the output to write the indexes to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    private static void writeIndexes(Collection<?> objects, IdentityHashMap<Object, Integer> indexes,
+                                     DataOutput out) throws IOException {
+        int count = 0;
+        for (Object object : objects) {
+            if (indexes.containsKey(object)) {
+                count++;
+            }
+        }
+        out.writeInt(count);
+        for (Object object : objects) {
+            Integer index = indexes.get(object);
+            if (index != null) {
+                out.writeInt(index);
+            }
+        }
+    }
+
+    /**
+     * Writes a string that may be null.
+     *
+     * @param string            the string to write
+     * @param out               the output to write the string to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    private static void writeString(String string, DataOutput out) throws IOException {
+        out.writeBoolean(string != null);
+        if (string != null) {
+            out.writeUTF(string);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(String, DataOutput)}.
+     *
+     * @param in                the input to read the string from
+     * @return the string, or null
+     * @throws IOException      If an I/O error occurs while reading from the input
+     */
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class defines the {@code SimulationMetrics} of a {@link School}: the time spent in each {@link Phase} of a
+ * simulated day and the number of events of each {@link Counter} type (courses created, enrolments, graduations...).
+ * The metrics can be read over JMX once {@link #register(String)} has been called, and dumped periodically as CSV
+ * rows or JSON lines (see {@link Administrator#setMetricsOutput(java.io.Writer, int, boolean)}).
+ * The timings and the counters are only updated by the thread running the school (its own worker thread when
+ * several schools are run by a {@link MultiSchoolSimulation}), but they are read over JMX by other threads, so they are
+ * kept in atomic arrays: like the volatile {@code days}, every value is then seen whole and up to date by the readers.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+    /** The phases of a simulated day, in the order they happen. */
+    public enum Phase {
+        ENROL_STUDENTS, HIRE_INSTRUCTORS, REFRESH_COURSES, STAFF_COURSES, ENROL_FREE_STUDENTS, ADVANCE_COURSES,
+        INSTRUCTORS_LEAVING, STUDENTS_LEAVING
+    }
+
+    /** The types of events counted during the simulation. */
+    public enum Counter {
+        COURSES_CREATED, COURSES_CANCELLED, COURSES_FINISHED, ENROLMENTS, GRADUATIONS, STUDENTS_ADMITTED,
+        INSTRUCTORS_HIRED, STUDENT_DEPARTURES, INSTRUCTOR_DEPARTURES
+    }
+
+    private volatile long days;                         // The number of days simulated so far (read over JMX).
+    private final AtomicLongArray totalPhaseNanos;      // The total time spent in each phase, in nanoseconds.
+    private final AtomicLongArray lastPhaseNanos;       // The time spent in each phase in the last day, in nanoseconds.
+    private final AtomicLongArray counters;             // The number of events of each type.
+
+    /**
+     * Creates a new {@code SimulationMetrics} object with all its timings and counters set to 0.
+     */
+    public SimulationMetrics() {
+        totalPhaseNanos = new AtomicLongArray(Phase.values().length);
+        lastPhaseNanos = new AtomicLongArray(Phase.values().length);
+        counters = new AtomicLongArray(Counter.values().length);
+    }
+
+    /**
+     * Runs the {@code task} passed as parameter and records the time it took as the time spent in the {@code phase}.
+     *
+     * @param phase         the phase of the day the task performs
+     * @param task          the task to run and time
+     */
+    public void time(Phase phase, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        long elapsed = System.nanoTime() - start;
+        totalPhaseNanos.addAndGet(phase.ordinal(), elapsed);
+        lastPhaseNanos.set(phase.ordinal(), elapsed);
+    }
+
+    /**
+     * Increments by one the {@code counter} passed as parameter.
+     *
+     * @param counter       the type of event that happened
+     */
+    public void increment(Counter counter) {
+        counters.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Adds the {@code events} passed as parameter to the {@code counter}.
+     *
+     * @param counter       the type of the events that happened
+     * @param events        the number of events that happened
+     */
+    public void add(Counter counter, long events) {
+        counters.addAndGet(counter.ordinal(), events);
+    }
+
+    /**
+     * Returns the number of events of the type passed as parameter that happened so far.
+     *
+     * @param counter       the type of events
+     * @return the number of events of that type
+     */
+    public long get(Counter counter) {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Records that one more day has been simulated. It is only called by the thread running the school, so the days
+     * are only made volatile for the JMX clients reading them.
+     */
+    public void endDay() {
+        days++;
+    }
+
+    @Override
+    public long getDays() {
+        return days;
+    }
+
+    @Override
+    public Map<String, Long> getTotalPhaseNanos() {
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase.name(), totalPhaseNanos.get(phase.ordinal()));
+        }
+        return phaseNanos;
+    }
+
+    @Override
+    public Map<String, Long> getLastPhaseNanos() {
+        Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            phaseNanos.put(phase.name(), lastPhaseNanos.get(phase.ordinal()));
+        }
+        return phaseNanos;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> counterValues = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            counterValues.put(counter.name(), counters.get(counter.ordinal()));
+        }
+        return counterValues;
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, under the name
+     * {@code SchoolSimulation:type=SimulationMetrics,school=<schoolName>}.
+     *
+     * @param schoolName                the name of the school the metrics belong to
+     * @throws InvalidInputException    If the metrics cannot be registered (e.g. the name is already in use)
+     */
+    public void register(String schoolName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, new ObjectName("SchoolSimulation:type=SimulationMetrics,school=" +
+                    ObjectName.quote(schoolName)));
+        } catch (JMException e) {
+            throw new InvalidInputException("Unable to register the metrics of " + schoolName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the header of the CSV dump to the {@link Appendable} passed as parameter: the day, the total nanoseconds
+     * spent in each phase and the value of each counter.
+     *
+     * @param out               the output to write the header to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    public void writeCsvHeader(Appendable out) throws IOException {
+        out.append("day");
+        for (Phase phase : Phase.values()) {
+            out.append(',').append(phase.name().toLowerCase()).append("_nanos");
+        }
+        for (Counter counter : Counter.values()) {
+            out.append(',').append(counter.name().toLowerCase());
+        }
+        out.append(System.lineSeparator());
+    }
+
+    /**
+     * Writes the current metrics as a CSV row to the {@link Appendable} passed as parameter, in the order given by
+     * {@link #writeCsvHeader(Appendable)}.
+     *
+     * @param out               the output to write the row to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    public void writeCsvRow(Appendable out) throws IOException {
+        out.append(Long.toString(days));
+        for (Phase phase : Phase.values()) {
+            out.append(',').append(Long.toString(totalPhaseNanos.get(phase.ordinal())));
+        }
+        for (Counter counter : Counter.values()) {
+            out.append(',').append(Long.toString(counters.get(counter.ordinal())));
+        }
+        out.append(System.lineSeparator());
+    }
+
+    /**
+     * Writes the current metrics as a single-line JSON object to the {@link Appendable} passed as parameter.
+     *
+     * @param out               the output to write the JSON line to
+     * @throws IOException      If an I/O error occurs while writing to the output
+     */
+    public void writeJsonLine(Appendable out) throws IOException {
+        out.append("{\"day\":").append(Long.toString(days)).append(",\"phaseNanos\":{");
+        for (Phase phase : Phase.values()) {
+            out.append(phase.ordinal() == 0 ? "\"" : ",\"").append(phase.name().toLowerCase()).append("\":")
+                    .append(Long.toString(totalPhaseNanos.get(phase.ordinal())));
+        }
+        out.append("},\"counters\":{");
+        for (Counter counter : Counter.values()) {
+            out.append(counter.ordinal() == 0 ? "\"" : ",\"").append(counter.name().toLowerCase()).append("\":")
+                    .append(Long.toString(counters.get(counter.ordinal())));
+        }
+        out.append("}}").append(System.lineSeparator());
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.Map;
+
+/**
+ * This interface defines the management interface of {@link SimulationMetrics}, through which the latency of each
+ * phase of a simulated day and the counters of the simulation events are exposed over JMX (e.g. to JConsole).
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public interface SimulationMetricsMXBean {
+
+    /**
+     * Returns the number of days simulated so far.
+     *
+     * @return the number of days simulated
+     */
+    long getDays();
+
+    /**
+     * Returns the total time spent in each phase of the simulated days, in nanoseconds.
+     *
+     * @return the total time spent in each phase, by phase name
+     */
+    Map<String, Long> getTotalPhaseNanos();
+
+    /**
+     * Returns the time spent in each phase during the last simulated day, in nanoseconds.
+     *
+     * @return the time spent in each phase during the last day, by phase name
+     */
+    Map<String, Long> getLastPhaseNanos();
+
+    /**
+     * Returns the number of events of each type that happened so far.
+     *
+     * @return the number of events, by counter name
+     */
+    Map<String, Long> getCounters();
+}
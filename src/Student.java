@@ -1,142 +1,299 @@
-import java.util.ArrayList;
-
-/**
- * This class defines a {@code Student} object.
- * It provides all the properties and methods necessary to manage a student in the bigger context of the {@code School}.
- * Each student, apart from the properties inherited from {@code Person}, has also an {@code attendedCourses} ArrayList
- * containing all the courses the student is enrolled in, and a {@code certificates} ArrayList containing all the subjectIDs
- * of the subjects that he or she has already taken.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class Student extends Person {
-    private ArrayList<Course> attendedCourses;    // The courses the student is attending.
-    private ArrayList<Integer> certificates;      // The collection of subject IDs of the subjects that they have taken.
-
-    /**
-     * Creates a new {@code Student} object and initializes the {@code name}, {@code gender}, {@code age},
-     * {@code attendedCourses} and {@code certificates} properties.
-     *
-     * @param name                      the name of the student
-     * @param gender                    student's gender: male (‘M’) or female (‘F’)
-     * @param age                       how old the student is, in years
-     * @throws InvalidInputException    If gender is not M or F, or if age is not positive
-     */
-    public Student(String name, char gender, int age) {
-        super(name, gender, age);
-        attendedCourses = new ArrayList<>();
-        certificates = new ArrayList<>();
-    }
-
-    /**
-     * Adds the {@code Course} object passed as parameter to the {@code attendedCourses} ArrayList.
-     *
-     * @param attendedCourse        the course to add to the attendedCourses ArrayList
-     */
-    public void addAttendedCourse(Course attendedCourse) {
-        this.attendedCourses.add(attendedCourse);
-    }
-
-    /**
-     * Removes the {@code Course} object passed as parameter from the {@code attendedCourses} ArrayList.
-     *
-     * @param attendedCourse        the course to remove from the attendedCourses ArrayList
-     */
-    public void removeAttendedCourse(Course attendedCourse) {
-        this.attendedCourses.remove(attendedCourse);
-    }
-
-    /**
-     * Student's {@code attendedCourses} ArrayList accessor method.
-     *
-     * @return the ArrayList containing all the courses the student is attending
-     */
-    public ArrayList<Course> getAttendedCourse() {
-        return attendedCourses;
-    }
-
-    /**
-     * Returns an ArrayList of all the {@code Subjects} the student is studying, deriving them from the
-     * {@code attendedCourses} ArrayList.
-     *
-     * @return the ArrayList containing all the courses the student is attending
-     */
-    public ArrayList<Integer> getAttendedSubject() {
-        ArrayList<Integer> subjectList = new ArrayList<>();
-        for(Course course : getAttendedCourse()){
-            subjectList.add(course.getSubject().getID());
-        }
-        return subjectList;
-    }
-
-    /**
-     * Adds the {@code ID} of the subject to the {@code certificates} ArrayList.
-     *
-     * @param subject       the name of the subject the student graduated from
-     */
-    public void graduate(Subject subject) {
-        certificates.add(subject.getID());
-    }
-
-    /**
-     * Student's {@code certificates} ArrayList accessor method.
-     *
-     * @return the ArrayList of certificates obtained by the student
-     */
-    public ArrayList<Integer> getCertificates() {
-        return certificates;
-    }
-
-    /**
-     * Checks whether or not the student has already obtained the certificate for the input {@code Subject}.
-     *
-     * @param subject       the name of the subject
-     * @return true if the student has already obtained the subject's certificate, false otherwise
-     */
-    public boolean hasCertificate(Subject subject) {
-        return certificates.contains(subject.getID());
-    }
-
-    /**
-     * Returns a pretty-print String of the subject.
-     *
-     * @return a table-formatted string containing the student's name, gender, age, and certificate.
-     */
-    @Override
-    public String toString() {
-
-        // Stores the details of the student in a table-formatted string, procedurally adding all of them.
-        StringBuilder studentDetails = new StringBuilder();
-        studentDetails.append(String.format("%-20s %5s %16s", getName(), getGender(), getAge()));
-
-        /* Depending on how many certificates a student has, adds the correct row of information with the right
-        formatting to the table-formatted string */
-        StringBuilder certificateString = new StringBuilder();
-        for (int certificate : getCertificates()) {
-            certificateString.append(certificate).append(" ");
-        }
-        studentDetails.append(String.format("%22s", certificateString.toString()));
-
-        /* If is attending some Courses, in columns, it adds them to the table-formatted string, otherwise it adds "Free" to the
-        string. */
-        if (getAttendedCourse().isEmpty()) {
-            studentDetails.append(String.format("%32s%n", "Free"));
-        } else {
-            for (int i = 0; i < getAttendedCourse().size(); i++) {
-                Course[] courseName = getAttendedCourse().toArray(new Course[0]);
-                if (i == 0 && getAttendedCourse().size() == 1) {
-                    studentDetails.append(String.format("%32s%n", courseName[i].getSubject().getDescription()));
-                } else if (i == 0) {
-                    studentDetails.append(String.format("%32s%n", courseName[i].getSubject().getDescription()));
-                } else if (i == getAttendedCourse().size() - 1) {
-                    studentDetails.append(String.format("%97s%n", courseName[i].getSubject().getDescription()));
-                } else {
-                    studentDetails.append(String.format("%97s%n", courseName[i].getSubject().getDescription()));
-                }
-            }
-        }
-        studentDetails.append("\n");
-        return studentDetails.toString();
-    }
-}
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * This class defines a {@code Student} object.
+ * It provides all the properties and methods necessary to manage a student in the bigger context of the {@code School}.
+ * Each student, apart from the properties inherited from {@code Person}, has also an {@code attendedCourses} set
+ * containing all the courses the student is enrolled in (in the order of enrolment), and a {@code certificates} list
+ * containing all the subjectIDs of the subjects that he or she has already taken.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class Student extends Person {
+    private LinkedHashSet<Course> attendedCourses; // The courses the student is attending.
+    private Set<Course> attendedCoursesView;      // The read-only view of attendedCourses returned to the callers.
+    private SubjectList attendedSubjects;         // The subject IDs of the courses the student is attending.
+    private SubjectList attendedSubjectsView;     // The read-only view of attendedSubjects returned to the callers.
+    private SubjectList certificates;             // The collection of subject IDs of the subjects that they have taken.
+    private SubjectList certificatesView;         // The read-only view of certificates returned to the callers.
+    private SubjectSet certificateMask;           // The indexes of the same IDs in the graph, for fast checks.
+    private PrerequisiteGraph prerequisiteGraph;  // The prerequisites of the subjects of the school (null if unknown).
+    private SubjectSet eligibleSubjects;          // The positions in the graph of the subjects the student can take.
+    private SubjectSet waitlistedSubjects;        // The positions in the graph of the subjects the student waits for.
+
+    /**
+     * Creates a new {@code Student} object and initializes the {@code name}, {@code gender}, {@code age},
+     * {@code attendedCourses} and {@code certificates} properties.
+     *
+     * @param name                      the name of the student
+     * @param gender                    student's gender: male (‘M’) or female (‘F’)
+     * @param age                       how old the student is, in years
+     * @throws InvalidInputException    If gender is not M or F, or if age is not positive
+     */
+    public Student(String name, char gender, int age) {
+        super(name, gender, age);
+        attendedCourses = new LinkedHashSet<>();
+        attendedCoursesView = Collections.unmodifiableSet(attendedCourses);
+        attendedSubjects = new SubjectList();
+        attendedSubjectsView = attendedSubjects.readOnlyView();
+        certificates = new SubjectList();
+        certificatesView = certificates.readOnlyView();
+        certificateMask = new SubjectSet();
+        waitlistedSubjects = new SubjectSet();
+    }
+
+    /**
+     * Adds the {@code Course} object passed as parameter to the {@code attendedCourses} set, and the ID of its subject
+     * to the {@code attendedSubjects} list.
+     *
+     * @param attendedCourse        the course to add to the attendedCourses set
+     */
+    public void addAttendedCourse(Course attendedCourse) {
+        this.attendedCourses.add(attendedCourse);
+        attendedSubjects.add(attendedCourse.getSubject().getID());
+    }
+
+    /**
+     * Removes the {@code Course} object passed as parameter from the {@code attendedCourses} set, in constant time.
+     * The ID of its subject is removed from the {@code attendedSubjects} list too.
+     *
+     * @param attendedCourse        the course to remove from the attendedCourses set
+     */
+    public void removeAttendedCourse(Course attendedCourse) {
+        if (this.attendedCourses.remove(attendedCourse)) {
+            attendedSubjects.remove(attendedCourse.getSubject().getID());
+        }
+    }
+
+    /**
+     * Student's {@code attendedCourses} accessor method.
+     * The returned set is a read-only view, in the order of enrolment: courses must be added through
+     * {@link #addAttendedCourse(Course)}.
+     *
+     * @return the set containing all the courses the student is attending
+     */
+    public Set<Course> getAttendedCourse() {
+        return attendedCoursesView;
+    }
+
+    /**
+     * Checks whether or not the student is attending the {@code Course} passed as parameter, in constant time.
+     *
+     * @param course        the course to look for
+     * @return true if the student is attending the course, false otherwise
+     */
+    public boolean isAttending(Course course) {
+        return attendedCourses.contains(course);
+    }
+
+    /**
+     * Checks whether or not the student is attending a course of the {@link Subject} passed as parameter, looking
+     * through the few subject IDs of the courses the student is attending.
+     *
+     * @param subject       the subject to look for
+     * @return true if the student is attending a course of the subject, false otherwise
+     */
+    public boolean isAttending(Subject subject) {
+        return attendedSubjects.contains(subject.getID());
+    }
+
+    /**
+     * Returns the IDs of all the {@code Subjects} the student is studying, in the order of enrolment, as a read-only
+     * view of a list kept up to date as courses are added to and removed from the {@code attendedCourses} set, so it
+     * is not rebuilt on each call.
+     *
+     * @return the read-only list of the subject IDs of the courses the student is attending
+     */
+    public SubjectList getAttendedSubjects() {
+        return attendedSubjectsView;
+    }
+
+    /**
+     * Adds the {@code ID} of the subject to the {@code certificates} list.
+     *
+     * @param subject       the name of the subject the student graduated from
+     */
+    public void graduate(Subject subject) {
+        graduate(subject.getID());
+    }
+
+    /**
+     * Adds the subject {@code ID} passed as parameter to the {@code certificates} list, e.g. when the student is
+     * read back from a {@link SchoolSnapshot}.
+     *
+     * @param subjectID     the ID of the subject the student graduated from
+     */
+    public void graduate(int subjectID) {
+        if (!hasCertificate(subjectID)) {
+            certificates.add(subjectID);
+            if (prerequisiteGraph != null) {
+                int index = prerequisiteGraph.getIndex(subjectID);
+                if (index >= 0) {
+                    certificateMask.add(index);
+                }
+                prerequisiteGraph.graduate(eligibleSubjects, certificateMask, subjectID);
+            }
+        }
+    }
+
+    /**
+     * Sets the {@link PrerequisiteGraph} of the subjects of the student's school, and works out from it the indexes of
+     * the student's certificates (see {@link PrerequisiteGraph#getIndex(int)}) and the subjects the student can take
+     * next. The sets are then kept up to date every time the student graduates.
+     *
+     * @param prerequisiteGraph     the prerequisites of the subjects of the school, or null to stop keeping the sets
+     */
+    public void setPrerequisiteGraph(PrerequisiteGraph prerequisiteGraph) {
+        this.prerequisiteGraph = prerequisiteGraph;
+        if (prerequisiteGraph == null) {
+            certificateMask = new SubjectSet();
+            eligibleSubjects = null;
+        } else {
+            certificateMask = prerequisiteGraph.getIndexes(certificates);
+            eligibleSubjects = prerequisiteGraph.getEligibleSubjects(certificateMask);
+        }
+        waitlistedSubjects = new SubjectSet();
+    }
+
+    /**
+     * Returns the subjects the student can take next: the ones the student has not graduated from yet, and whose
+     * prerequisites the student has all graduated from. The set contains the positions of the subjects in the
+     * {@link PrerequisiteGraph} passed to {@link #setPrerequisiteGraph(PrerequisiteGraph)}, i.e. in the order they were
+     * added to the school.
+     *
+     * @return the set of the positions of the subjects the student can take, or null if no graph has been set
+     */
+    public SubjectSet getEligibleSubjects() {
+        return eligibleSubjects;
+    }
+
+    /**
+     * Returns the subjects whose waitlists the student is in, as positions in the {@link PrerequisiteGraph} passed to
+     * {@link #setPrerequisiteGraph(PrerequisiteGraph)}. The set is kept by the school of the student (see
+     * {@link School#getWaitlist(Subject)}), so that a student joins each waitlist at most once, and it is emptied when
+     * the student is given a new graph.
+     *
+     * @return the set of the positions of the subjects the student is waiting for
+     */
+    public SubjectSet getWaitlistedSubjects() {
+        return waitlistedSubjects;
+    }
+
+    /**
+     * Student's {@code certificates} list accessor method.
+     * The returned list is a read-only view in graduation order: certificates must be issued through
+     * {@link #graduate(Subject)}, which keeps the certificates and the subjects the student can take in step.
+     *
+     * @return the read-only list of certificates obtained by the student
+     */
+    public SubjectList getCertificates() {
+        return certificatesView;
+    }
+
+    /**
+     * Checks whether or not the student has already obtained the certificate for the input {@code Subject}.
+     *
+     * @param subject       the name of the subject
+     * @return true if the student has already obtained the subject's certificate, false otherwise
+     */
+    public boolean hasCertificate(Subject subject) {
+        return hasCertificate(subject.getID());
+    }
+
+    /**
+     * Checks whether or not the student has already obtained the certificate for the subject ID passed as parameter,
+     * in the set of indexes of the certificates if the graph of the student's school knows the ID, in the list of the
+     * certificates otherwise.
+     *
+     * @param subjectID     the ID of the subject
+     * @return true if the student has already obtained the subject's certificate, false otherwise
+     */
+    private boolean hasCertificate(int subjectID) {
+        int index = prerequisiteGraph == null ? -1 : prerequisiteGraph.getIndex(subjectID);
+        return index >= 0 ? certificateMask.contains(index) : certificates.contains(subjectID);
+    }
+
+    /**
+     * Checks whether or not the student has already obtained the certificates for all the subjects in the input
+     * {@link SubjectSet}.
+     *
+     * @param subjectIndexes    the set of the indexes of the subject IDs to check in the {@link PrerequisiteGraph} of
+     *                          the student's school (e.g. all the subjects of the school)
+     * @return true if the student has the certificates for all the subjects in the set, false otherwise
+     */
+    public boolean hasCertificates(SubjectSet subjectIndexes) {
+        return certificateMask.containsAll(subjectIndexes);
+    }
+
+    /**
+     * Checks whether or not the student can take the {@link Subject} passed as parameter: whether the student has not
+     * graduated from it yet, but has graduated from all its prerequisites. If the subject is taught in the student's
+     * school this is a single lookup in the subjects the student can take (see {@link #getEligibleSubjects()}).
+     *
+     * @param subject       the subject to check
+     * @return true if the student can take the subject, false otherwise
+     */
+    public boolean canTake(Subject subject) {
+        int position = prerequisiteGraph == null ? -1 : prerequisiteGraph.getPosition(subject);
+        if (position >= 0) {
+            return eligibleSubjects.contains(position);
+        }
+        if (hasCertificate(subject)) {
+            return false;
+        }
+        SubjectList prerequisites = subject.getPrerequisites();
+        for (int i = 0; i < prerequisites.size(); i++) {
+            if (!hasCertificate(prerequisites.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the pretty-print details of the student to the {@link Formatter} passed as parameter, without building the
+     * whole row as an intermediate string.
+     *
+     * @param formatter         the formatter to write the student's name, gender, age, certificates and courses to
+     */
+    public void writeDetails(Formatter formatter) {
+        formatter.format("%-20s %5s %16s", getName(), getGender(), getAge());
+
+        /* Depending on how many certificates a student has, writes the correct row of information with the right
+        formatting to the table-formatted output. */
+        StringBuilder certificateString = new StringBuilder();
+        for (int i = 0; i < certificates.size(); i++) {
+            certificateString.append(certificates.get(i)).append(' ');
+        }
+        formatter.format("%22s", certificateString);
+
+        /* If is attending some Courses, in columns, it writes them to the table-formatted output, otherwise it writes
+        "Free". */
+        if (getAttendedCourse().isEmpty()) {
+            formatter.format("%32s%n", "Free");
+        } else {
+            boolean first = true;
+            for (Course course : getAttendedCourse()) {
+                formatter.format(first ? "%32s%n" : "%97s%n", course.getSubject().getDescription());
+                first = false;
+            }
+        }
+        formatter.format("\n");
+    }
+
+    /**
+     * Returns a pretty-print String of the subject.
+     *
+     * @return a table-formatted string containing the student's name, gender, age, and certificate.
+     */
+    @Override
+    public String toString() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeDetails(formatter);
+        return formatter.toString();
+    }
+}
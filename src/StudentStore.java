@@ -0,0 +1,487 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * This class defines a {@code StudentStore}, an alternative to {@link Student} objects for schools with millions of
+ * students.
+ * Each student is a row of the store, identified by its index, and each property of the students is a column of
+ * primitive values kept outside of the heap: the index of the name in a table of interned names, the gender, the age,
+ * the number of courses the student is enrolled in, the certificates (as bits indexed by the dense index of the
+ * subject ID in the {@link PrerequisiteGraph} of the school, like in a {@link SubjectSet}) and the IDs of the
+ * subjects of the courses the student is attending (one slot per course the student can enrol in). The columns are
+ * direct buffers or, if the store is given a directory, files of that directory mapped in memory, so that even the
+ * largest schools only take a small, constant amount of heap.
+ * <p>
+ * Removed students leave a tombstone behind, and their rows are reused by the students added afterwards.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class StudentStore implements Closeable {
+    private static final int INITIAL_CAPACITY = 1024;       // The number of rows allocated when the store is created.
+
+    // The states of a row.
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+
+    private Path directory;                 // The directory of the memory-mapped columns (null if they are off-heap).
+    private int capacity;                   // The number of rows allocated in each column.
+    private int rowCount;                   // The number of rows used so far, including the tombstones.
+    private int size;                       // The number of students in the store.
+    private int activeCount;                // The number of students enrolled in at least one course.
+    private int certificateWords;           // The number of long words of certificates of each student.
+    private int slots;                      // The maximum number of courses each student can attend.
+
+    private Column names;                   // The index of the name of each student in the table of names.
+    private Column genders;                 // The gender of each student.
+    private Column ages;                    // The age of each student.
+    private Column states;                  // The state of each row: FREE (a tombstone) or LIVE.
+    private Column enrolledCounts;          // The number of courses each student is enrolled in.
+    private Column certificates;            // The certificates of each student, as bits indexed by subject index.
+    private Column attendedSubjects;        // The subject IDs (+1, 0 if the slot is empty) of the attended courses.
+
+    private ArrayList<String> nameTable;                // The interned names, by index.
+    private HashMap<String, Integer> nameIndexes;       // The index of each interned name.
+    private int[] freeRows;                             // The stack of the rows that can be reused.
+    private int freeRowCount;                           // The number of rows in the stack.
+
+    /**
+     * Creates a new empty {@code StudentStore} object.
+     *
+     * @param subjectCount              the number of subject indexes the certificates can hold (see
+     *                                  {@link PrerequisiteGraph#getIndexCount()})
+     * @param slots                     the maximum number of courses each student can attend at the same time
+     * @param directory                 the directory to keep the memory-mapped columns in, or null to keep them in
+     *                                  off-heap memory
+     * @throws IOException              If the files of the columns cannot be created in the directory
+     * @throws InvalidInputException    If the subject count or the number of slots are not positive, or if there are
+     *                                  more slots than the enrolled counts can hold ({@code Short.MAX_VALUE})
+     */
+    public StudentStore(int subjectCount, int slots, Path directory) throws IOException {
+        if (subjectCount < 1 || slots < 1) {
+            throw new InvalidInputException("The subject count and the slots of a student store must be positive.\n");
+        }
+        if (slots > Short.MAX_VALUE) {
+            throw new InvalidInputException("A student store cannot hold more than " + Short.MAX_VALUE +
+                    " courses per student.\n");
+        }
+        this.directory = directory;
+        this.slots = slots;
+        certificateWords = ((subjectCount - 1) >>> 6) + 1;
+        capacity = INITIAL_CAPACITY;
+
+        names = new Column("names", Integer.BYTES);
+        genders = new Column("genders", Character.BYTES);
+        ages = new Column("ages", Short.BYTES);
+        states = new Column("states", Byte.BYTES);
+        enrolledCounts = new Column("enrolled", Short.BYTES);
+        certificates = new Column("certificates", certificateWords * Long.BYTES);
+        attendedSubjects = new Column("attended", slots * Integer.BYTES);
+
+        nameTable = new ArrayList<>();
+        nameIndexes = new HashMap<>();
+        freeRows = new int[16];
+    }
+
+    /**
+     * Adds a new student with the {@code name}, {@code gender} and {@code age} passed as parameters to the store,
+     * reusing the row of a removed student if there is one.
+     *
+     * @param name                      the name of the student
+     * @param gender                    student's gender: male ('M') or female ('F')
+     * @param age                       how old the student is, in years
+     * @return the row of the new student
+     * @throws InvalidInputException    If gender is not M or F, or if age is not positive
+     */
+    public int add(String name, char gender, int age) {
+        if (gender != 'M' && gender != 'F') {
+            throw new InvalidInputException("Gender must be M or F.\n");
+        }
+        if (age <= 0 || age > Short.MAX_VALUE) {
+            throw new InvalidInputException("Age must be a positive integer.\n");
+        }
+
+        int row;
+        if (freeRowCount > 0) {
+            row = freeRows[--freeRowCount];
+        } else {
+            if (rowCount == capacity) {
+                grow();
+            }
+            row = rowCount++;
+        }
+
+        Integer nameIndex = nameIndexes.get(name);
+        if (nameIndex == null) {
+            nameIndex = nameTable.size();
+            nameTable.add(name);
+            nameIndexes.put(name, nameIndex);
+        }
+        names.buffer.putInt(row * Integer.BYTES, nameIndex);
+        genders.buffer.putChar(row * Character.BYTES, gender);
+        ages.buffer.putShort(row * Short.BYTES, (short) age);
+        enrolledCounts.buffer.putShort(row * Short.BYTES, (short) 0);
+        for (int i = 0; i < certificateWords; i++) {
+            certificates.buffer.putLong((row * certificateWords + i) * Long.BYTES, 0L);
+        }
+        for (int i = 0; i < slots; i++) {
+            attendedSubjects.buffer.putInt((row * slots + i) * Integer.BYTES, 0);
+        }
+        states.buffer.put(row, LIVE);
+        size++;
+        return row;
+    }
+
+    /**
+     * Removes all the students satisfying the {@code filter} passed as parameter from the store, in a single pass over
+     * its rows. The students still enrolled in a course are never removed, as their rows are referenced by the course.
+     *
+     * @param filter        the condition the rows of the students to remove satisfy
+     * @return the number of students removed from the store
+     */
+    public int removeIf(IntPredicate filter) {
+        int removed = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (isLive(row) && getEnrolledCount(row) == 0 && filter.test(row)) {
+                states.buffer.put(row, FREE);
+                if (freeRowCount == freeRows.length) {
+                    int[] newFreeRows = new int[freeRows.length * 2];
+                    System.arraycopy(freeRows, 0, newFreeRows, 0, freeRowCount);
+                    freeRows = newFreeRows;
+                }
+                freeRows[freeRowCount++] = row;
+                removed++;
+            }
+        }
+        size -= removed;
+        return removed;
+    }
+
+    /**
+     * Returns the number of rows used so far, including the tombstones of the removed students. The rows of the store
+     * can be iterated with {@code for (int row = 0; row < store.getRowCount(); row++) if (store.isLive(row)) ...}.
+     *
+     * @return the number of rows used so far
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns the number of students in the store.
+     *
+     * @return the size of the store
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of students of the store enrolled in at least one course.
+     *
+     * @return the number of active students
+     */
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Returns whether or not the row passed as parameter belongs to a student, rather than to a removed one.
+     *
+     * @param row       the row
+     * @return true if the row belongs to a student of the store, false otherwise
+     */
+    public boolean isLive(int row) {
+        return states.buffer.get(row) == LIVE;
+    }
+
+    /**
+     * Returns the name of the student in the row passed as parameter.
+     *
+     * @param row       the row of the student
+     * @return the name of the student
+     */
+    public String getName(int row) {
+        return nameTable.get(names.buffer.getInt(row * Integer.BYTES));
+    }
+
+    /**
+     * Returns the gender of the student in the row passed as parameter.
+     *
+     * @param row       the row of the student
+     * @return the gender of the student: male ('M') or female ('F')
+     */
+    public char getGender(int row) {
+        return genders.buffer.getChar(row * Character.BYTES);
+    }
+
+    /**
+     * Returns the age of the student in the row passed as parameter.
+     *
+     * @param row       the row of the student
+     * @return how old the student is, in years
+     */
+    public int getAge(int row) {
+        return ages.buffer.getShort(row * Short.BYTES);
+    }
+
+    /**
+     * Returns the number of courses the student in the row passed as parameter is enrolled in.
+     *
+     * @param row       the row of the student
+     * @return the number of courses the student is enrolled in
+     */
+    public int getEnrolledCount(int row) {
+        return enrolledCounts.buffer.getShort(row * Short.BYTES);
+    }
+
+    /**
+     * Checks whether or not the student in the row passed as parameter has the certificate for the subject index
+     * passed as parameter.
+     *
+     * @param row               the row of the student
+     * @param subjectIndex      the index of the subject ID (see {@link PrerequisiteGraph#getIndex(int)})
+     * @return true if the student has the certificate, false otherwise
+     */
+    public boolean hasCertificate(int row, int subjectIndex) {
+        int wordIndex = subjectIndex >>> 6;
+        return wordIndex < certificateWords && (certificates.buffer.getLong(
+                (row * certificateWords + wordIndex) * Long.BYTES) & (1L << subjectIndex)) != 0;
+    }
+
+    /**
+     * Checks whether or not the student in the row passed as parameter has the certificates for all the subjects in
+     * the {@link SubjectSet} passed as parameter, a word at a time.
+     *
+     * @param row               the row of the student
+     * @param subjectIndexes    the set of the subject indexes to check (e.g. a subject's prerequisites)
+     * @return true if the student has the certificates for all the subjects in the set, false otherwise
+     */
+    public boolean hasCertificates(int row, SubjectSet subjectIndexes) {
+        int wordCount = subjectIndexes.getWordCount();
+        for (int i = 0; i < wordCount; i++) {
+            long word = subjectIndexes.getWord(i);
+            if (word != 0) {
+                long certificateWord = i < certificateWords ?
+                        certificates.buffer.getLong((row * certificateWords + i) * Long.BYTES) : 0L;
+                if ((word & ~certificateWord) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the indexes of the subjects the student in the row passed as parameter has the certificates for.
+     *
+     * @param row       the row of the student
+     * @return the set of the subject indexes of the certificates of the student
+     */
+    public SubjectSet getCertificates(int row) {
+        SubjectSet subjectIndexes = new SubjectSet();
+        for (int i = 0; i < certificateWords; i++) {
+            long word = certificates.buffer.getLong((row * certificateWords + i) * Long.BYTES);
+            while (word != 0) {
+                subjectIndexes.add((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return subjectIndexes;
+    }
+
+    /**
+     * Issues the certificate for the subject index passed as parameter to the student in the row passed as parameter.
+     *
+     * @param row                       the row of the student
+     * @param subjectIndex              the index of the ID of the subject the student graduated from
+     * @throws InvalidInputException    If the subject index is negative or beyond the subject count of the store
+     */
+    public void graduate(int row, int subjectIndex) {
+        int wordIndex = subjectIndex >>> 6;
+        if (subjectIndex < 0 || wordIndex >= certificateWords) {
+            throw new InvalidInputException("Subject index " + subjectIndex +
+                    " is beyond the capacity of the store.\n");
+        }
+        int index = (row * certificateWords + wordIndex) * Long.BYTES;
+        certificates.buffer.putLong(index, certificates.buffer.getLong(index) | (1L << subjectIndex));
+    }
+
+    /**
+     * Returns the subject ID of the course attended in the slot passed as parameter by the student in the row passed as
+     * parameter.
+     *
+     * @param row       the row of the student
+     * @param slot      the slot (0 to the maximum number of courses the student can attend - 1)
+     * @return the subject ID of the course, or -1 if the slot is empty
+     */
+    public int getAttendedSubject(int row, int slot) {
+        return attendedSubjects.buffer.getInt((row * slots + slot) * Integer.BYTES) - 1;
+    }
+
+    /**
+     * Checks whether or not the student in the row passed as parameter is attending a course about the subject ID
+     * passed as parameter.
+     *
+     * @param row           the row of the student
+     * @param subjectID     the ID of the subject
+     * @return true if the student is attending a course about the subject, false otherwise
+     */
+    public boolean isAttending(int row, int subjectID) {
+        for (int slot = 0; slot < slots; slot++) {
+            if (getAttendedSubject(row, slot) == subjectID) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records that the student in the row passed as parameter has been enrolled in a course about the subject ID passed
+     * as parameter.
+     *
+     * @param row                       the row of the student
+     * @param subjectID                 the ID of the subject of the course
+     * @throws InvalidInputException    If the student is already attending as many courses as they can
+     */
+    public void attend(int row, int subjectID) {
+        for (int slot = 0; slot < slots; slot++) {
+            int index = (row * slots + slot) * Integer.BYTES;
+            if (attendedSubjects.buffer.getInt(index) == 0) {
+                attendedSubjects.buffer.putInt(index, subjectID + 1);
+                int enrolledCount = getEnrolledCount(row) + 1;
+                enrolledCounts.buffer.putShort(row * Short.BYTES, (short) enrolledCount);
+                if (enrolledCount == 1) {
+                    activeCount++;
+                }
+                return;
+            }
+        }
+        throw new InvalidInputException("The student cannot attend more than " + slots + " courses.\n");
+    }
+
+    /**
+     * Records that the student in the row passed as parameter has been released from their course about the subject ID
+     * passed as parameter, because it has either finished or been cancelled.
+     *
+     * @param row           the row of the student
+     * @param subjectID     the ID of the subject of the course
+     */
+    public void release(int row, int subjectID) {
+        for (int slot = 0; slot < slots; slot++) {
+            int index = (row * slots + slot) * Integer.BYTES;
+            if (attendedSubjects.buffer.getInt(index) == subjectID + 1) {
+                attendedSubjects.buffer.putInt(index, 0);
+                int enrolledCount = getEnrolledCount(row) - 1;
+                enrolledCounts.buffer.putShort(row * Short.BYTES, (short) enrolledCount);
+                if (enrolledCount == 0) {
+                    activeCount--;
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Doubles the number of rows allocated in each column.
+     *
+     * @throws InvalidInputException    If the columns cannot grow any further
+     */
+    private void grow() {
+        int newCapacity = capacity * 2;
+        if ((long) newCapacity * Math.max(certificates.width, attendedSubjects.width) > Integer.MAX_VALUE) {
+            throw new InvalidInputException("The student store cannot hold more than " + capacity + " students.\n");
+        }
+        for (Column column : new Column[] {names, genders, ages, states, enrolledCounts, certificates,
+                attendedSubjects}) {
+            column.resize(newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    /**
+     * Closes the files of the memory-mapped columns, if any. The store must not be used afterwards.
+     *
+     * @throws IOException      If an I/O error occurs while closing the files
+     */
+    @Override
+    public void close() throws IOException {
+        for (Column column : new Column[] {names, genders, ages, states, enrolledCounts, certificates,
+                attendedSubjects}) {
+            if (column.channel != null) {
+                column.channel.close();
+            }
+        }
+    }
+
+    /**
+     * A column of the store: a buffer holding a fixed-width value for each row, either off-heap or mapped in memory
+     * from a file of the store's directory.
+     */
+    private class Column {
+        private final int width;            // The number of bytes of the value of each row.
+        private FileChannel channel;        // The file the column is mapped from (null if it is off-heap).
+        private ByteBuffer buffer;          // The values of the rows.
+
+        /**
+         * Creates a new {@code Column} with {@code capacity} rows of {@code width} bytes.
+         *
+         * @param name              the name of the column, and of its file
+         * @param width             the number of bytes of the value of each row
+         * @throws IOException      If the file of the column cannot be created
+         */
+        private Column(String name, int width) throws IOException {
+            this.width = width;
+            if (directory != null) {
+                channel = FileChannel.open(directory.resolve(name + ".column"), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            resize(capacity);
+        }
+
+        /**
+         * Reallocates the column with the number of rows passed as parameter, keeping the values of the current rows.
+         *
+         * @param newCapacity       the new number of rows of the column
+         */
+        private void resize(int newCapacity) {
+            ByteBuffer newBuffer;
+            if (channel != null) {
+
+                // Mapping a larger region extends the file, which already holds the values of the current rows.
+                try {
+                    newBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) newCapacity * width);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                newBuffer = ByteBuffer.allocateDirect(newCapacity * width);
+                if (buffer != null) {
+                    buffer.clear();
+                    newBuffer.put(buffer);
+                }
+            }
+            buffer = newBuffer.order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Returns a short description of the store, e.g. for debugging.
+     *
+     * @return the number of students, active students and rows of the store, and where the columns are kept
+     */
+    @Override
+    public String toString() {
+        return "StudentStore[" + size + " students, " + activeCount + " active, " + rowCount + " rows, " +
+                (directory == null ? "off-heap" : directory.toString()) + "]";
+    }
+}
@@ -1,137 +1,186 @@
-import java.util.ArrayList;
-
-/**
- * This class defines a {@code Subject} object.
- * It provides all the properties and methods necessary to manage a subject in the bigger context of the {@code School}.
- *
- * @author Giovanni Arcudi
- * @version 1.0
- */
-public class Subject {
-    private int id;                                 // The unique ID of the subject.
-    private int specialism;                         // The specialism ID of the subject.
-    private int duration;                           // The number of days required for any course covering the subject.
-    private String description;                     // The string description of the subject.
-    private ArrayList<Integer> prerequisites;       // The subjectsIDs of the subjects needed to study this subject.
-
-    /**
-     * Creates a new {@code Subject} object and initializes its {@code name}, {@code ID}, {@code specialism},
-     * {@code duration} and {@code prerequisites} variables.
-     *
-     * @param id                        the unique ID of the subject
-     * @param specialism                the specialism ID of the subject
-     * @param duration                  the duration (number of days) required for any course covering the subject
-     * @throws InvalidInputException    If id, specialism and duration are not all positive integers
-     */
-    public Subject(int id, int specialism, int duration) {
-        if (id < 0 || specialism < 0 || duration < 0) {
-            throw new InvalidInputException("Id, specialism and duration must be positive numbers.");
-        } else {
-            this.id = id;
-            this.specialism = specialism;
-            this.duration = duration;
-            prerequisites = new ArrayList<>();
-        }
-    }
-
-    /**
-     * Subject's {@code id} accessor method.
-     *
-     * @return the unique ID of the subject
-     */
-    public int getID() {
-        return id;
-    }
-
-    /**
-     * Subject's {@code specialism} accessor method.
-     *
-     * @return the specialism ID of the subject
-     */
-    public int getSpecialism() {
-        return specialism;
-    }
-
-    /**
-     * Subject's {@code duration} accessor method.
-     *
-     * @return the duration (number of days) required for any course covering the subject
-     */
-    public int getDuration() {
-        return duration;
-    }
-
-    /**
-     * Subject's {@code description} accessor method.
-     *
-     * @return the string description of the subject
-     */
-    public String getDescription() {
-        return description;
-    }
-
-    /**
-     * Subject's {@code description} setter method.
-     *
-     * @param description       the string description of the subject
-     */
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    /**
-     * Subject's {@code prerequisites} accessor method.
-     *
-     * @return the subjectIDs of the subjects you have to take before studying this subject
-     */
-    public ArrayList<Integer> getPrerequisites() {
-        return prerequisites;
-    }
-
-    /**
-     * Adds a prerequisite to the Subject's {@code prerequisites} ArrayList.
-     *
-     * @param prerequisite     the subjectIDs of the subjects you have to take before studying this one
-     */
-    public void addPrerequisites(int prerequisite) {
-        this.prerequisites.add(prerequisite);
-    }
-
-    /**
-     * Returns a pretty-print string of the {@code Subject}, containing all its details.
-     *
-     * @return a table-formatted string containing the subject's name, ID, specialism, duration (in days) and prerequisites
-     */
-    @Override
-    public String toString() {
-
-        // Stores the details of the subject in a table-formatted string, procedurally adding all of them.
-        StringBuilder subjectDetails = new StringBuilder();
-        subjectDetails.append(String.format("%-15s %10s %22s %20s", getDescription(), getID(), getSpecialism(),
-                getDuration() + " days"));
-
-        /* If prerequisites are needed to take this subject, it adds them to the table-formatted string, otherwise it
-        adds "No Prerequisites" to the string. */
-        if (prerequisites.size() == 0) {
-            subjectDetails.append(String.format("%26s%n", "No Prerequisites"));
-        } else {
-            int i = 0;
-            for (int subjectID : getPrerequisites()) {
-                if (getPrerequisites().size() == 1) {
-                    subjectDetails.append(String.format("%23s%n", subjectID));
-                } else {
-                    if (i == 0) {
-                        subjectDetails.append(String.format("%23s", subjectID));
-                        i++;
-                    } else if (i == getPrerequisites().size() - 1) {
-                        subjectDetails.append(", ").append(subjectID).append("\n");
-                    } else {
-                        subjectDetails.append(", ").append(subjectID);
-                        i++;
-                    }
-                }
-            }
-        }
-        return subjectDetails.toString();
-    }
-}
+import java.util.Formatter;
+
+/**
+ * This class defines a {@code Subject} object.
+ * It provides all the properties and methods necessary to manage a subject in the bigger context of the {@code School}.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class Subject {
+    public static final int DEFAULT_CAPACITY = 3;   // The number of seats of the courses of a subject, by default.
+    public static final int DEFAULT_LEAD_TIME = 2;  // The days between the creation and the start of a course, by default.
+
+    private int id;                                 // The unique ID of the subject.
+    private int specialism;                         // The specialism ID of the subject.
+    private int duration;                           // The number of days required for any course covering the subject.
+    private String description;                     // The string description of the subject.
+    private SubjectList prerequisites;              // The subjectsIDs of the subjects needed to study this subject.
+    private int capacity;                           // The maximum number of students of any course of the subject.
+    private int leadTime;                           // The number of days until a new course of the subject starts.
+
+    /**
+     * Creates a new {@code Subject} object and initializes its {@code name}, {@code ID}, {@code specialism},
+     * {@code duration} and {@code prerequisites} variables.
+     *
+     * @param id                        the unique ID of the subject
+     * @param specialism                the specialism ID of the subject
+     * @param duration                  the duration (number of days) required for any course covering the subject
+     * @throws InvalidInputException    If id, specialism and duration are not all positive integers
+     */
+    public Subject(int id, int specialism, int duration) {
+        if (id < 0 || specialism < 0 || duration < 0) {
+            throw new InvalidInputException("Id, specialism and duration must be positive numbers.");
+        } else {
+            this.id = id;
+            this.specialism = specialism;
+            this.duration = duration;
+            prerequisites = new SubjectList();
+            capacity = DEFAULT_CAPACITY;
+            leadTime = DEFAULT_LEAD_TIME;
+        }
+    }
+
+    /**
+     * Subject's {@code id} accessor method.
+     *
+     * @return the unique ID of the subject
+     */
+    public int getID() {
+        return id;
+    }
+
+    /**
+     * Subject's {@code specialism} accessor method.
+     *
+     * @return the specialism ID of the subject
+     */
+    public int getSpecialism() {
+        return specialism;
+    }
+
+    /**
+     * Subject's {@code duration} accessor method.
+     *
+     * @return the duration (number of days) required for any course covering the subject
+     */
+    public int getDuration() {
+        return duration;
+    }
+
+    /**
+     * Subject's {@code capacity} accessor method.
+     *
+     * @return the maximum number of students that can be enrolled in any course of the subject
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Subject's {@code capacity} setter method. By default, each course has {@value #DEFAULT_CAPACITY} seats.
+     *
+     * @param capacity                  the maximum number of students that can be enrolled in any course of the subject
+     * @throws InvalidInputException    If capacity is not greater than 0
+     */
+    public void setCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new InvalidInputException("The capacity of a subject's courses must be greater than 0.\n");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Subject's {@code leadTime} accessor method.
+     *
+     * @return the number of days between the creation of a course of the subject and its start
+     */
+    public int getLeadTime() {
+        return leadTime;
+    }
+
+    /**
+     * Subject's {@code leadTime} setter method. By default, new courses start in {@value #DEFAULT_LEAD_TIME} days.
+     *
+     * @param leadTime                  the number of days between the creation of a course of the subject and its start
+     * @throws InvalidInputException    If leadTime is a negative number
+     */
+    public void setLeadTime(int leadTime) {
+        if (leadTime < 0) {
+            throw new InvalidInputException("The lead time of a subject's courses must be greater or equal to 0.\n");
+        }
+        this.leadTime = leadTime;
+    }
+
+    /**
+     * Subject's {@code description} accessor method.
+     *
+     * @return the string description of the subject
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Subject's {@code description} setter method.
+     *
+     * @param description       the string description of the subject
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Subject's {@code prerequisites} accessor method.
+     *
+     * @return the subjectIDs of the subjects you have to take before studying this subject
+     */
+    public SubjectList getPrerequisites() {
+        return prerequisites;
+    }
+
+    /**
+     * Adds a prerequisite to the Subject's {@code prerequisites} list.
+     *
+     * @param prerequisite     the subjectIDs of the subjects you have to take before studying this one
+     */
+    public void addPrerequisites(int prerequisite) {
+        this.prerequisites.add(prerequisite);
+    }
+
+    /**
+     * Writes the pretty-print details of the {@code Subject} to the {@link Formatter} passed as parameter, without
+     * building any intermediate string.
+     *
+     * @param formatter         the formatter to write the subject's name, ID, specialism, duration and prerequisites to
+     */
+    public void writeDetails(Formatter formatter) {
+        formatter.format("%-15s %10s %22s %15s days", getDescription(), getID(), getSpecialism(), getDuration());
+
+        /* If prerequisites are needed to take this subject, it writes them to the table-formatted output, otherwise it
+        writes "No Prerequisites". */
+        if (prerequisites.size() == 0) {
+            formatter.format("%26s%n", "No Prerequisites");
+        } else if (prerequisites.size() == 1) {
+            formatter.format("%23s%n", prerequisites.get(0));
+        } else {
+            formatter.format("%23s", prerequisites.get(0));
+            for (int i = 1; i < prerequisites.size() - 1; i++) {
+                formatter.format(", %s", prerequisites.get(i));
+            }
+            formatter.format(", %s\n", prerequisites.get(prerequisites.size() - 1));
+        }
+    }
+
+    /**
+     * Returns a pretty-print string of the {@code Subject}, containing all its details.
+     *
+     * @return a table-formatted string containing the subject's name, ID, specialism, duration (in days) and prerequisites
+     */
+    @Override
+    public String toString() {
+        Formatter formatter = new Formatter(new StringBuilder());
+        writeDetails(formatter);
+        return formatter.toString();
+    }
+}
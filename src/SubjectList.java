@@ -0,0 +1,157 @@
+/**
+ * This class defines a {@code SubjectList}, a compact list of {@link Subject} IDs.
+ * The IDs are kept in insertion order in a growable {@code int} array, so that lists such as a Subject's prerequisites
+ * or a {@link Student}'s certificates can be stored and walked through without boxing any ID. It is the ordered
+ * counterpart of {@link SubjectSet}, for when the order of the IDs matters (e.g. when they are printed or saved).
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SubjectList {
+    private int[] ids;              // The subject IDs of the list; only the first size elements are used.
+    private int size;               // The number of IDs in the list.
+
+    /**
+     * Creates a new empty {@code SubjectList} object.
+     */
+    public SubjectList() {
+        ids = new int[4];
+    }
+
+    /**
+     * Appends the subject ID passed as parameter to the end of the list.
+     *
+     * @param id        the subject ID to add to the list
+     */
+    public void add(int id) {
+        if (size == ids.length) {
+            int[] newIds = new int[ids.length * 2];
+            System.arraycopy(ids, 0, newIds, 0, size);
+            ids = newIds;
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Returns the subject ID at the index passed as parameter. It can be used to iterate over the list in insertion
+     * order: {@code for (int i = 0; i < list.size(); i++) list.get(i)}.
+     *
+     * @param index     the index of the subject ID, from 0 to size() - 1
+     * @return the subject ID at that index
+     * @throws IndexOutOfBoundsException    If the index is negative or not smaller than the size of the list
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return ids[index];
+    }
+
+    /**
+     * Checks whether or not the list contains the subject ID passed as parameter.
+     *
+     * @param id        the subject ID to look for
+     * @return true if the list contains the subject ID, false otherwise
+     */
+    public boolean contains(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the first occurrence of the subject ID passed as parameter from the list, keeping the order of the others.
+     *
+     * @param id        the subject ID to remove from the list
+     * @return true if the list contained the subject ID, false otherwise
+     */
+    public boolean remove(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of subject IDs in the list.
+     *
+     * @return the size of the list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether or not the list is empty.
+     *
+     * @return true if the list contains no subject ID, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns a read-only view of the list, which always reflects its current content but throws an
+     * {@link UnsupportedOperationException} on {@link #add(int)} and {@link #remove(int)}, so that a class can hand out
+     * one of its lists without letting the callers change it behind its back.
+     *
+     * @return the read-only view of the list
+     */
+    public SubjectList readOnlyView() {
+        return new ReadOnlyView(this);
+    }
+
+    /**
+     * The read-only view of a {@link SubjectList} returned by {@link #readOnlyView()}: it reads the list it wraps, and
+     * rejects any change.
+     */
+    private static class ReadOnlyView extends SubjectList {
+        private final SubjectList list;                 // The list the view reads.
+
+        ReadOnlyView(SubjectList list) {
+            this.list = list;
+        }
+
+        @Override
+        public void add(int id) {
+            throw new UnsupportedOperationException("The list is read-only.");
+        }
+
+        @Override
+        public int get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return list.contains(id);
+        }
+
+        @Override
+        public boolean remove(int id) {
+            throw new UnsupportedOperationException("The list is read-only.");
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return list.isEmpty();
+        }
+
+        @Override
+        public SubjectList readOnlyView() {
+            return this;
+        }
+    }
+}
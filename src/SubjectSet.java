@@ -0,0 +1,156 @@
+/**
+ * This class defines a {@code SubjectSet}, a compact set of {@link Subject} indexes.
+ * Each index is used directly as the index of a bit in an array of {@code long} words, so checking whether a set
+ * contains all the indexes of another set (e.g. whether a {@link Student}'s certificates include all the prerequisites
+ * of a Subject) only takes a few word operations, without boxing any index. As the set grows with the largest index it
+ * holds, it is only meant for the dense indexes of a {@link PrerequisiteGraph} (the positions of the subjects, or the
+ * indexes of their IDs, see {@link PrerequisiteGraph#getIndex(int)}), never for the subject IDs themselves.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SubjectSet {
+    private long[] words;           // The bits of the set: bit (i % 64) of word (i / 64) is set if i is in the set.
+    private int size;               // The number of indexes in the set.
+
+    /**
+     * Creates a new empty {@code SubjectSet} object.
+     */
+    public SubjectSet() {
+        words = new long[1];
+    }
+
+    /**
+     * Adds the subject index passed as parameter to the set.
+     *
+     * @param index     the subject index to add to the set
+     */
+    public void add(int index) {
+        int wordIndex = index >>> 6;
+        if (wordIndex >= words.length) {
+            long[] newWords = new long[Math.max(wordIndex + 1, words.length * 2)];
+            System.arraycopy(words, 0, newWords, 0, words.length);
+            words = newWords;
+        }
+        if ((words[wordIndex] & (1L << index)) == 0) {
+            words[wordIndex] |= 1L << index;
+            size++;
+        }
+    }
+
+    /**
+     * Removes the subject index passed as parameter from the set.
+     *
+     * @param index     the subject index to remove from the set
+     */
+    public void remove(int index) {
+        int wordIndex = index >>> 6;
+        if (wordIndex < words.length && (words[wordIndex] & (1L << index)) != 0) {
+            words[wordIndex] &= ~(1L << index);
+            size--;
+        }
+    }
+
+    /**
+     * Checks whether or not the set contains the subject index passed as parameter.
+     *
+     * @param index     the subject index to look for
+     * @return true if the set contains the subject index, false otherwise
+     */
+    public boolean contains(int index) {
+        int wordIndex = index >>> 6;
+        return wordIndex < words.length && (words[wordIndex] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks whether or not the set contains all the subject indexes of the {@code SubjectSet} passed as parameter.
+     *
+     * @param other     the set of subject indexes to look for
+     * @return true if every subject index of the other set is also in this set, false otherwise
+     */
+    public boolean containsAll(SubjectSet other) {
+        if (other.size > size) {
+            return false;
+        }
+        long[] otherWords = other.words;
+        for (int i = 0; i < otherWords.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((otherWords[i] & ~word) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the first subject index of the set that is greater or equal to the one passed as parameter. It can be
+     * used to iterate over the set in ascending order: {@code for (int i = set.next(0); i >= 0; i = set.next(i + 1))}.
+     *
+     * @param fromIndex     the subject index to start looking from
+     * @return the first subject index of the set greater or equal to fromIndex, or -1 if there is none
+     */
+    public int next(int fromIndex) {
+        int wordIndex = fromIndex >>> 6;
+        if (fromIndex < 0 || wordIndex >= words.length) {
+            return -1;
+        }
+        long word = words[wordIndex] & (-1L << fromIndex);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Returns the number of {@code long} words the set is stored in.
+     *
+     * @return the number of words of the set
+     */
+    public int getWordCount() {
+        return words.length;
+    }
+
+    /**
+     * Returns a word of the set: bit (i % 64) of word (i / 64) is set if i is in the set. It can be used to compare
+     * the set with indexes stored elsewhere as bits (e.g. in a {@link StudentStore}) without unpacking them.
+     *
+     * @param wordIndex     the index of the word
+     * @return the word of the set, or 0 if the index is beyond the last word
+     */
+    public long getWord(int wordIndex) {
+        return wordIndex < words.length ? words[wordIndex] : 0L;
+    }
+
+    /**
+     * Removes all the subject indexes from the set.
+     */
+    public void clear() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = 0L;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the number of subject indexes in the set.
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether or not the set is empty.
+     *
+     * @return true if the set contains no subject index, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,80 @@
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * This class defines the {@code EventDrivenTest}, which checks that an event-driven {@link School} (see
+ * {@link School#setEventDriven(boolean)}) has the same outcome as one whose courses all count down every day: the same
+ * seed must give the same reports and the same counters in both modes, whether the courses are read every day or only
+ * at the end of the run, and whether the students are kept as objects or in a {@link StudentStore}.
+ * It throws an {@link AssertionError} as soon as a check fails.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class EventDrivenTest {
+    private static final int DAYS = 150;                // The number of days each school is simulated for.
+
+    /**
+     * Generates a new {@link School} whose subjects run for up to a month and start after different lead times, so
+     * that most days only some of the courses start or end.
+     *
+     * @return the generated school
+     */
+    private static School createSchool() {
+        return TestUtility.createSchool("Event School", 12, 80, 12, 31, 9, true);
+    }
+
+    /**
+     * Runs a newly generated school for {@code DAYS} days with the same seed, and returns its reports followed by its
+     * counters.
+     *
+     * @param eventDriven       true to run the school event-driven, false to count down every course every day
+     * @param reportMode        how the status of the school is reported
+     * @param studentStore      true to keep the students in a {@link StudentStore}, false to keep them as objects
+     * @return the reports and the counters of the run
+     * @throws IOException      If the student store cannot be created
+     */
+    private static String run(boolean eventDriven, ReportMode reportMode, boolean studentStore) throws IOException {
+        School school = createSchool();
+        if (studentStore) {
+            school.setStudentStore(new StudentStore(school.getPrerequisiteGraph().getIndexCount(),
+                    school.getMaxEnrollableCourses(), null));
+        }
+        school.setEventDriven(eventDriven);
+        Administrator administrator = new Administrator(school, TestUtility.SEED);
+        StringWriter reports = new StringWriter();
+        administrator.setReportOutput(reports);
+        administrator.setReportMode(reportMode);
+        administrator.run(DAYS);
+        TestUtility.check(school.getMetrics().get(SimulationMetrics.Counter.COURSES_FINISHED) > 0 &&
+                school.getMetrics().get(SimulationMetrics.Counter.COURSES_CANCELLED) > 0,
+                "The courses of the school neither finish nor get cancelled, so the modes cannot differ.");
+        return reports + "\n" + school.getMetrics().getCounters();
+    }
+
+    /**
+     * Checks that the same seed gives the same reports and counters with and without {@code --event-driven}.
+     *
+     * @param reportMode        how the status of the school is reported
+     * @param studentStore      true to keep the students in a {@link StudentStore}, false to keep them as objects
+     * @throws IOException      If the student store cannot be created
+     */
+    private static void checkSameOutcome(ReportMode reportMode, boolean studentStore) throws IOException {
+        String perDay = run(false, reportMode, studentStore);
+        String eventDriven = run(true, reportMode, studentStore);
+        TestUtility.check(perDay.equals(eventDriven), "The event-driven run differs from the per-day run (report " +
+                "mode " + reportMode + (studentStore ? ", student store" : "") + ").");
+    }
+
+    /**
+     * EventDrivenTest's class main method.
+     * Runs all the checks, printing a line once they have all passed.
+     */
+    public static void main(String[] args) throws IOException {
+        checkSameOutcome(ReportMode.EVERY, false);
+        checkSameOutcome(ReportMode.FINAL, false);
+        checkSameOutcome(ReportMode.SUMMARY, false);
+        checkSameOutcome(ReportMode.FINAL, true);
+        System.out.println("EventDrivenTest: all checks passed.");
+    }
+}
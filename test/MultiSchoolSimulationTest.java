@@ -0,0 +1,165 @@
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class defines the {@code MultiSchoolSimulationTest}, which checks that a {@link MultiSchoolSimulation} whose
+ * schools all succeed runs them all to the same day, and that one whose school fails reports the failure of that
+ * school instead of waiting forever for it, whether the other schools reach the end of the day before or after it
+ * fails.
+ * It throws an {@link AssertionError} as soon as a check fails.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class MultiSchoolSimulationTest {
+    private static final int SCHOOLS = 3;               // The number of schools of each simulation.
+    private static final int DAYS = 5;                  // The number of days each simulation is run for.
+    private static final long SLOW_REPORT = 200;        // The time a slow school takes to write a report, in ms.
+    private static final long TIMEOUT = 10;             // The time a simulation is given to run, in seconds.
+
+    /**
+     * This class defines a {@code SlowWriter}, a {@link StringWriter} that takes {@code SLOW_REPORT} milliseconds to
+     * be flushed, so that its school finishes each day after the others.
+     */
+    private static class SlowWriter extends StringWriter {
+
+        /**
+         * Waits for {@code SLOW_REPORT} milliseconds, unless the thread is interrupted.
+         */
+        @Override
+        public void flush() {
+            try {
+                Thread.sleep(SLOW_REPORT);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * This class defines a {@code FailingWriter}, a {@link Writer} that fails with an {@link IllegalStateException} as
+     * soon as its school writes a report.
+     */
+    private static class FailingWriter extends Writer {
+        private final IllegalStateException failure = new IllegalStateException("The report cannot be written.");
+
+        /**
+         * Throws the failure of the writer instead of writing anything.
+         */
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+            throw failure;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Creates a new {@link MultiSchoolSimulation} of {@code SCHOOLS} schools reporting every day.
+     *
+     * @return the simulation
+     */
+    private static MultiSchoolSimulation createSimulation() {
+        ArrayList<Administrator> administrators = new ArrayList<>();
+        for (int i = 0; i < SCHOOLS; i++) {
+            administrators.add(new Administrator(TestUtility.createSchool("School " + i, 6, 30, 4, 6, 4, false),
+                    TestUtility.SEED + i));
+        }
+        MultiSchoolSimulation simulation = new MultiSchoolSimulation(administrators);
+        simulation.setReportMode(ReportMode.EVERY);
+        simulation.setReportOutput(new StringWriter());
+        return simulation;
+    }
+
+    /**
+     * Runs the {@link MultiSchoolSimulation} passed as parameter for {@code DAYS} days on another thread, and returns
+     * the failure it throws, or null if it runs to the end.
+     *
+     * @param simulation        the simulation to run
+     * @return the failure thrown by the simulation, or null if there is none
+     * @throws InterruptedException     If the test is interrupted while waiting for the simulation
+     */
+    private static Throwable run(MultiSchoolSimulation simulation) throws InterruptedException {
+        ExecutorService runner = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> run = runner.submit(() -> simulation.run(DAYS));
+            run.get(TIMEOUT, TimeUnit.SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            throw new AssertionError("The simulation was still running after " + TIMEOUT + " seconds.");
+        } finally {
+            runner.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks that all the schools of a simulation without failures are run to the last day.
+     *
+     * @throws InterruptedException     If the test is interrupted while waiting for the simulation
+     */
+    private static void allSchoolsRunToTheEnd() throws InterruptedException {
+        MultiSchoolSimulation simulation = createSimulation();
+        TestUtility.check(run(simulation) == null, "The simulation failed without any failing school.");
+        for (Administrator administrator : simulation.getAdministrators()) {
+            TestUtility.check(administrator.getDay() == DAYS,
+                    administrator.getSchool().getName() + " stopped on day " + administrator.getDay() + ".");
+        }
+    }
+
+    /**
+     * Checks that a simulation whose school passed as parameter fails on the first day throws the failure of that
+     * school, when either the other schools or the failing one are slow to finish the day.
+     *
+     * @param failingSchool     the index of the failing school
+     * @param slowOthers        true if the other schools are slow, false if the failing one is
+     * @throws InterruptedException     If the test is interrupted while waiting for the simulation
+     */
+    private static void failureIsReported(int failingSchool, boolean slowOthers) throws InterruptedException {
+        MultiSchoolSimulation simulation = createSimulation();
+        FailingWriter failingWriter = new FailingWriter();
+        for (int i = 0; i < SCHOOLS; i++) {
+            Administrator administrator = simulation.getAdministrators().get(i);
+            if (i == failingSchool) {
+                administrator.setReportOutput(slowOthers ? failingWriter : new SlowWriter() {
+                    @Override
+                    public void flush() {
+                        super.flush();
+                        throw failingWriter.failure;
+                    }
+                });
+            } else if (slowOthers) {
+                administrator.setReportOutput(new SlowWriter());
+            }
+        }
+        TestUtility.check(run(simulation) == failingWriter.failure, "The failure of school " + failingSchool +
+                " was not reported (" + (slowOthers ? "other schools" : "failing school") + " slow).");
+    }
+
+    /**
+     * MultiSchoolSimulationTest's class main method.
+     * Runs all the checks, printing a line once they have all passed.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        allSchoolsRunToTheEnd();
+        failureIsReported(0, true);
+        failureIsReported(SCHOOLS - 1, true);
+        failureIsReported(0, false);
+        failureIsReported(SCHOOLS - 1, false);
+        System.out.println("MultiSchoolSimulationTest: all checks passed.");
+    }
+}
@@ -0,0 +1,197 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * This class defines the {@code ParallelParsingTest}, which checks that {@link ConfigurationLoader#load(String, int)}
+ * reads a configuration file split into chunks on several threads exactly like a serial load: the schools must have
+ * the same subjects, instructors and students, in the same order. The files span several chunks, with a line straddling
+ * the end of the first chunk or ending right on it, with and without a line terminator at the end of the file and with
+ * both kinds of line terminators. A malformed line in a later chunk must be rejected with an
+ * {@link InvalidInputException} by both loads.
+ * It throws an {@link AssertionError} as soon as a check fails.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class ParallelParsingTest {
+    private static final int CHUNK_SIZE = 4 << 20;      // The size of the chunks of ConfigurationLoader (4 MiB).
+    private static final int FILE_SIZE = CHUNK_SIZE * 2 + (CHUNK_SIZE >> 1);   // The size of the generated files.
+    private static final int THREADS = 4;               // The number of threads of the parallel loads.
+
+    /**
+     * Generates the lines of a configuration file of about {@code FILE_SIZE} bytes: a school line, a few subjects and
+     * instructors, then students with names of different lengths.
+     *
+     * @param lineSeparator         the line terminator of the file
+     * @param lineEndsAtChunk       true to end a line right at the end of the first chunk, false to have a line
+     *                              straddle it
+     * @param trailingSeparator     true to end the file with a line terminator
+     * @param malformedLine         a line to add past the first chunk, or null to add none
+     * @return the bytes of the configuration file
+     */
+    private static byte[] createConfiguration(String lineSeparator, boolean lineEndsAtChunk, boolean trailingSeparator,
+                                              String malformedLine) {
+        ArrayList<String> lines = new ArrayList<>();
+        lines.add("school:Parsing School,2,3");
+        for (int id = 1; id <= 8; id++) {
+            lines.add("subject:Subject " + id + "," + id + "," + (1 + id % 4) + "," + (2 + id % 5) +
+                    (id > 4 ? "," + (id - 4) : ""));
+        }
+        lines.add("Teacher:Yvonne,F,55");
+        lines.add("Demonstrator:Beth,F,45");
+        lines.add("OOTrainer:Chris,M,62");
+        lines.add("GUITrainer:Sarah,F,48");
+
+        StringBuilder configuration = new StringBuilder();
+        for (String line : lines) {
+            configuration.append(line).append(lineSeparator);
+        }
+        StringBuilder padding = new StringBuilder();
+        boolean malformedLineAdded = malformedLine == null;
+        for (int student = 0; configuration.length() < FILE_SIZE; student++) {
+            int remaining = CHUNK_SIZE - configuration.length();
+            if (lineEndsAtChunk && remaining > 0 && remaining < 200) {
+
+                // Pads a student's name so that their line terminator is the last byte of the first chunk.
+                padding.setLength(0);
+                while (padding.length() < remaining - "student:,F,20".length() - lineSeparator.length()) {
+                    padding.append('P');
+                }
+                configuration.append("student:").append(padding).append(",F,20").append(lineSeparator);
+                continue;
+            }
+            if (!malformedLineAdded && configuration.length() > CHUNK_SIZE + (CHUNK_SIZE >> 2)) {
+                configuration.append(malformedLine).append(lineSeparator);
+                malformedLineAdded = true;
+            }
+            padding.setLength(0);
+            for (int i = 0; i < student % 61; i++) {
+                padding.append((char) ('a' + i % 26));
+            }
+            configuration.append("student:Student ").append(student).append(padding).append(student % 2 == 0 ?
+                    ",M," : ",F,").append(18 + student % 9).append(lineSeparator);
+        }
+        if (!trailingSeparator) {
+            configuration.setLength(configuration.length() - lineSeparator.length());
+        }
+        return configuration.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Loads the configuration file passed as parameter on the number of threads passed as parameter.
+     *
+     * @param configurationFile     the configuration file to load
+     * @param parallelism           the number of threads parsing the file (1 to parse it serially)
+     * @return the administrators of the schools described by the file, in order
+     * @throws IOException          If the file cannot be read
+     */
+    private static ArrayList<Administrator> load(Path configurationFile, int parallelism) throws IOException {
+        SimulationUtility simulationUtility = new SimulationUtility();
+        new ConfigurationLoader(simulationUtility).load(configurationFile.toString(), parallelism);
+        return simulationUtility.getAdministrators();
+    }
+
+    /**
+     * Writes the {@link School} passed as parameter as a snapshot in memory, so that two schools can be compared.
+     *
+     * @param school        the school to write
+     * @return the bytes of the snapshot
+     * @throws IOException  If the snapshot cannot be written
+     */
+    private static byte[] snapshot(School school) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SchoolSnapshot.write(school, 0, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checks that loading the configuration passed as parameter serially and in parallel gives the same schools.
+     *
+     * @param configuration     the bytes of the configuration file
+     * @param description       the description of the configuration, for the error messages
+     * @throws IOException      If the file cannot be written or read
+     */
+    private static void checkSameSchools(byte[] configuration, String description) throws IOException {
+        Path configurationFile = Files.createTempFile("configuration", ".txt");
+        try {
+            Files.write(configurationFile, configuration);
+            ArrayList<Administrator> serial = load(configurationFile, 1);
+            TestUtility.check(serial.size() == 1 &&
+                    serial.get(0).getSchool().getStudents().size() == countStudents(configuration),
+                    "The serial load lost some students (" + description + ").");
+            ArrayList<Administrator> parallel = load(configurationFile, THREADS);
+            TestUtility.check(parallel.size() == 1 && Arrays.equals(snapshot(serial.get(0).getSchool()),
+                    snapshot(parallel.get(0).getSchool())),
+                    "The parallel load differs from the serial one (" + description + ").");
+        } finally {
+            Files.delete(configurationFile);
+        }
+    }
+
+    /**
+     * Checks that loading the configuration passed as parameter, which has a malformed line, throws an
+     * {@link InvalidInputException} both serially and in parallel.
+     *
+     * @param configuration     the bytes of the configuration file
+     * @throws IOException      If the file cannot be written or read
+     */
+    private static void checkRejected(byte[] configuration) throws IOException {
+        Path configurationFile = Files.createTempFile("configuration", ".txt");
+        try {
+            Files.write(configurationFile, configuration);
+            for (int parallelism : new int[] {1, THREADS}) {
+                boolean rejected = false;
+                try {
+                    load(configurationFile, parallelism);
+                } catch (InvalidInputException e) {
+                    rejected = true;
+                }
+                TestUtility.check(rejected, "The malformed line was not rejected on " + parallelism + " thread(s).");
+            }
+        } finally {
+            Files.delete(configurationFile);
+        }
+    }
+
+    /**
+     * Counts the student lines of the configuration passed as parameter.
+     *
+     * @param configuration     the bytes of the configuration file
+     * @return the number of lines starting with "student:"
+     */
+    private static long countStudents(byte[] configuration) {
+        String text = new String(configuration, StandardCharsets.US_ASCII);
+        long students = 0;
+        for (int i = text.indexOf("student:"); i >= 0; i = text.indexOf("student:", i + 1)) {
+            students++;
+        }
+        return students;
+    }
+
+    /**
+     * ParallelParsingTest's class main method.
+     * Runs all the checks, printing a line once they have all passed.
+     */
+    public static void main(String[] args) throws IOException {
+        byte[] straddling = createConfiguration("\n", false, true, null);
+        TestUtility.check(straddling[CHUNK_SIZE - 1] != '\n', "No line straddles the end of the first chunk.");
+        checkSameSchools(straddling, "line straddling the first chunk");
+
+        byte[] endingAtChunk = createConfiguration("\n", true, true, null);
+        TestUtility.check(endingAtChunk[CHUNK_SIZE - 1] == '\n', "No line ends right at the end of the first chunk.");
+        checkSameSchools(endingAtChunk, "line ending at the first chunk");
+
+        checkSameSchools(createConfiguration("\n", false, false, null), "no trailing line terminator");
+        checkSameSchools(createConfiguration("\r\n", false, false, null), "CRLF line terminators");
+        checkRejected(createConfiguration("\n", false, true, "student:Broken,M"));
+        System.out.println("ParallelParsingTest: all checks passed.");
+    }
+}
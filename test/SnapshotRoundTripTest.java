@@ -0,0 +1,113 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * This class defines the {@code SnapshotRoundTripTest}, which checks that a {@link School} saved as a
+ * {@link SchoolSnapshot} in the middle of a run and read back continues exactly like the school it was saved from: once
+ * both are seeded with the same seed, they must give the same reports, counters and final state, whether each of them
+ * is event-driven (see {@link School#setEventDriven(boolean)}) or not. Writing a school read back from a snapshot must
+ * also give the same snapshot again.
+ * It throws an {@link AssertionError} as soon as a check fails.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class SnapshotRoundTripTest {
+    private static final long RESUME_SEED = 42L;        // The seed both runs are given after the snapshot.
+    private static final int DAYS_BEFORE = 60;          // The number of days run before the snapshot is saved.
+    private static final int DAYS_AFTER = 90;           // The number of days run after the snapshot is saved.
+
+    /**
+     * Generates a new {@link School} with subjects of different lengths and few seats, so that the snapshot is taken
+     * with courses at every stage and students waiting for seats.
+     *
+     * @return the generated school
+     */
+    private static School createSchool() {
+        return TestUtility.createSchool("Snapshot School", 9, 60, 8, 16, 7, false);
+    }
+
+    /**
+     * Runs the {@link Administrator} passed as parameter for {@code DAYS_AFTER} days from the {@code RESUME_SEED},
+     * and returns its reports, its counters and the final snapshot of its school.
+     *
+     * @param administrator     the administrator to run
+     * @return the outcome of the run
+     * @throws IOException      If the final snapshot cannot be written
+     */
+    private static String resume(Administrator administrator) throws IOException {
+        StringWriter reports = new StringWriter();
+        administrator.setReportOutput(reports);
+        administrator.setReportMode(ReportMode.EVERY);
+        administrator.setSeed(RESUME_SEED);
+        administrator.run(DAYS_AFTER);
+        return reports + "\n" + administrator.getSchool().getMetrics().getCounters() + "\n" +
+                Arrays.toString(write(administrator.getSchool(), administrator.getDay()));
+    }
+
+    /**
+     * Writes the {@link School} passed as parameter as a snapshot in memory.
+     *
+     * @param school        the school to write
+     * @param day           the day of the snapshot
+     * @return the bytes of the snapshot
+     * @throws IOException  If the snapshot cannot be written
+     */
+    private static byte[] write(School school, int day) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            SchoolSnapshot.write(school, day, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Checks that a school saved while running in one mode and resumed in another continues like the original school.
+     *
+     * @param savedEventDriven      true if the school is event-driven until the snapshot is saved
+     * @param resumedEventDriven    true if the school read back from the snapshot is event-driven
+     * @throws IOException          If the snapshot cannot be saved or loaded
+     */
+    private static void checkResumedRun(boolean savedEventDriven, boolean resumedEventDriven) throws IOException {
+        Administrator original = new Administrator(createSchool(), TestUtility.SEED);
+        original.getSchool().setEventDriven(savedEventDriven);
+        original.setReportMode(ReportMode.NONE);
+        original.run(DAYS_BEFORE);
+
+        Path snapshotFile = Files.createTempFile("school", ".snapshot");
+        try {
+            SchoolSnapshot.save(original.getSchool(), original.getDay(), snapshotFile.toString());
+            SchoolSnapshot snapshot = SchoolSnapshot.load(snapshotFile.toString());
+            TestUtility.check(snapshot.getDay() == DAYS_BEFORE, "The snapshot was read back with the wrong day.");
+            TestUtility.check(Arrays.equals(write(original.getSchool(), original.getDay()),
+                    write(snapshot.getSchool(), snapshot.getDay())),
+                    "The school read back from the snapshot is written as a different snapshot.");
+
+            Administrator resumed = new Administrator(snapshot.getSchool());
+            resumed.setDay(snapshot.getDay());
+            resumed.getSchool().setEventDriven(resumedEventDriven);
+            TestUtility.check(resume(original).equals(resume(resumed)), "The resumed run differs from the original " +
+                    "one (saved " + (savedEventDriven ? "event-driven" : "per day") + ", resumed " +
+                    (resumedEventDriven ? "event-driven" : "per day") + ").");
+        } finally {
+            Files.delete(snapshotFile);
+        }
+    }
+
+    /**
+     * SnapshotRoundTripTest's class main method.
+     * Runs all the checks, printing a line once they have all passed.
+     */
+    public static void main(String[] args) throws IOException {
+        checkResumedRun(false, false);
+        checkResumedRun(true, true);
+        checkResumedRun(false, true);
+        checkResumedRun(true, false);
+        System.out.println("SnapshotRoundTripTest: all checks passed.");
+    }
+}
@@ -0,0 +1,69 @@
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the {@code TestUtility}, which holds the fixtures shared by the tests: the seed they are run
+ * from, a generator of seeded {@link School}s and the check that makes a test fail.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class TestUtility {
+    public static final long SEED = 20200101L;          // The seed of the generated schools and of their runs.
+
+    /**
+     * Generates a new {@link School} from the {@code SEED}, with few seats and three layers of subjects, each subject
+     * of a layer having the subject of the previous layer as prerequisite, so that most students have to wait for a
+     * seat. Subject {@code i} has specialism {@code 1 + i % 4}, and the instructors are of each type in turn.
+     *
+     * @param name              the name of the school
+     * @param subjects          the number of subjects taught in the school
+     * @param students          the number of students of the school
+     * @param instructors       the number of instructors of the school
+     * @param maxDays           the longest duration of a subject, in days (at least 2)
+     * @param maxCapacity       the largest number of seats of a course (at least 2)
+     * @param variedLeadTimes   true to give the subjects lead times from 1 to 5 days, false to keep the default one
+     * @return the generated school
+     */
+    public static School createSchool(String name, int subjects, int students, int instructors, int maxDays,
+                                      int maxCapacity, boolean variedLeadTimes) {
+        School school = new School(name);
+        school.setMaxEnrollableCourses(2);
+        school.setMaxAssignableCourses(2);
+        SplittableRandom random = new SplittableRandom(SEED);
+        int subjectsPerLayer = Math.max(1, subjects / 3);
+        for (int id = 1; id <= subjects; id++) {
+            Subject subject = new Subject(id, 1 + id % 4, 2 + random.nextInt(maxDays - 1));
+            subject.setDescription("Subject " + id);
+            subject.setCapacity(2 + random.nextInt(maxCapacity - 1));
+            if (variedLeadTimes) {
+                subject.setLeadTime(1 + random.nextInt(5));
+            }
+            if (id > subjectsPerLayer) {
+                subject.addPrerequisites(id - subjectsPerLayer);
+            }
+            school.add(subject);
+        }
+        PersonGenerator personGenerator = new PersonGenerator(random.split());
+        for (Student student : personGenerator.createStudents(students)) {
+            school.add(student);
+        }
+        PersonType[] instructorTypes = {PersonType.TEACHER, PersonType.DEMONSTRATOR, PersonType.OO_TRAINER,
+                PersonType.GUI_TRAINER};
+        for (int i = 0; i < instructors; i++) {
+            school.add(personGenerator.createInstructor(instructorTypes[i % instructorTypes.length]));
+        }
+        return school;
+    }
+
+    /**
+     * Throws an {@link AssertionError} with the {@code message} passed as parameter if the {@code condition} is false.
+     *
+     * @param condition     the condition to check
+     * @param message       the message of the error
+     */
+    public static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
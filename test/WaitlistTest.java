@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * This class defines the {@code WaitlistTest}, which checks that {@link School#enrolFreeStudents()} enrols the
+ * {@link Student}s from the waitlists of the subjects as expected:
+ * <ul><li> on the first day, when every student joins the waitlists in the order they joined the school, the
+ *          students are given the same seats as by a scan over all the students in that order;</li>
+ *     <li> the same seed always gives the same enrolments, day after day;</li>
+ *     <li> the seats of a subject go to the students in the order they joined its waitlist;</li>
+ *     <li> the students that leave the school while waiting for a seat are never enrolled.</li></ul>
+ * It throws an {@link AssertionError} as soon as a check fails.
+ *
+ * @author Giovanni Arcudi
+ * @version 1.0
+ */
+public class WaitlistTest {
+    private static final int DAYS = 60;                 // The number of days each school is simulated for.
+
+    /**
+     * Generates a new {@link School} with short subjects of two or three seats, so that most students have to wait for
+     * a seat.
+     *
+     * @return the generated school
+     */
+    private static School createSchool() {
+        return TestUtility.createSchool("Waitlist School", 6, 40, 5, 4, 3, false);
+    }
+
+    /**
+     * Returns the students enrolled in each course of the {@link School} passed as parameter, as the indexes of the
+     * students in the order they were admitted, so that two schools generated from the same seed can be compared.
+     *
+     * @param school            the school to list the enrolments of
+     * @param admissions        the index of each student of the school, in the order they were admitted
+     * @return one line per course, with its subject ID and the indexes of its students
+     */
+    private static String enrolments(School school, IdentityHashMap<Student, Integer> admissions) {
+        StringBuilder enrolments = new StringBuilder();
+        for (Course course : school.getCourses()) {
+            enrolments.append(course.getSubject().getID()).append(':');
+            for (Student student : course.getStudents()) {
+                admissions.putIfAbsent(student, admissions.size());
+                enrolments.append(' ').append(admissions.get(student));
+            }
+            enrolments.append('\n');
+        }
+        return enrolments.toString();
+    }
+
+    /**
+     * Enrols the students of the {@link School} passed as parameter by scanning them in the order they joined the
+     * school, giving each of them a seat in the first open course of each subject they can take, in the order of the
+     * subjects, until they reach the maximum number of courses.
+     *
+     * @param school        the school to enrol the students of
+     */
+    private static void enrolByScan(School school) {
+        PrerequisiteGraph graph = school.getPrerequisiteGraph();
+        for (Student student : school.getStudents()) {
+            SubjectSet eligibleSubjects = student.getEligibleSubjects();
+            for (int position = eligibleSubjects.next(0); position >= 0;
+                 position = eligibleSubjects.next(position + 1)) {
+                if (school.getNumberOfEnrolledCourses(student) >= school.getMaxEnrollableCourses()) {
+                    break;
+                }
+                Subject subject = graph.getSubject(position);
+                if (student.isAttending(subject)) {
+                    continue;
+                }
+                for (Course course : school.getOpenCourses(subject)) {
+                    if (course.enrolStudent(student)) {
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks that on the first day the waitlists give the students the same seats as a scan over all of them.
+     */
+    private static void firstEnrolmentsMatchScan() {
+        School waitlisted = createSchool();
+        School scanned = createSchool();
+        for (School school : new School[] {waitlisted, scanned}) {
+            school.coursesRefresh();
+            school.assignInstructorToEachCourse();
+        }
+        waitlisted.enrolFreeStudents();
+        enrolByScan(scanned);
+        IdentityHashMap<Student, Integer> waitlistedAdmissions = admissions(waitlisted);
+        IdentityHashMap<Student, Integer> scannedAdmissions = admissions(scanned);
+        TestUtility.check(enrolments(waitlisted, waitlistedAdmissions).equals(enrolments(scanned, scannedAdmissions)),
+                "The first enrolments from the waitlists differ from the ones of a scan over the students.");
+    }
+
+    /**
+     * Checks that two runs of the same school with the same seed enrol the same students in the same courses every day.
+     */
+    private static void sameSeedSameEnrolments() {
+        Administrator first = new Administrator(createSchool(), TestUtility.SEED);
+        Administrator second = new Administrator(createSchool(), TestUtility.SEED);
+        IdentityHashMap<Student, Integer> firstAdmissions = admissions(first.getSchool());
+        IdentityHashMap<Student, Integer> secondAdmissions = admissions(second.getSchool());
+        for (int day = 1; day <= DAYS; day++) {
+            first.run();
+            second.run();
+            TestUtility.check(enrolments(first.getSchool(), firstAdmissions).equals(enrolments(second.getSchool(),
+                    secondAdmissions)), "Two runs with the same seed enrolled different students on day " + day + ".");
+        }
+    }
+
+    /**
+     * Checks that the seats of a subject with a single seat per course go to the students in the order they joined its
+     * waitlist, one course after the other.
+     */
+    private static void waitlistIsFirstComeFirstServed() {
+        School school = new School("Queue School");
+        school.setMaxEnrollableCourses(1);
+        school.setMaxAssignableCourses(10);
+        Subject subject = new Subject(1, 1, 3);
+        subject.setDescription("Basics");
+        subject.setCapacity(1);
+        school.add(subject);
+        school.add(new Teacher("Yvonne", 'F', 55));
+        ArrayList<Student> students = new ArrayList<>();
+        for (String name : new String[] {"Peter", "John", "Annabelle", "Maggie"}) {
+            Student student = new Student(name, 'M', 20);
+            students.add(student);
+            school.add(student);
+        }
+        for (Student student : students) {
+            school.coursesRefresh();
+            school.enrolFreeStudents();
+            TestUtility.check(school.getNumberOfEnrolledCourses(student) == 1,
+                    student.getName() + " was not given the next seat of the waitlist.");
+        }
+    }
+
+    /**
+     * Checks that the students removed from the school while they are waiting for a seat are never enrolled, while the
+     * school keeps running.
+     */
+    private static void removedStudentsAreNeverEnrolled() {
+        Administrator administrator = new Administrator(createSchool(), TestUtility.SEED);
+        School school = administrator.getSchool();
+        Set<Student> removedStudents = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int day = 1; day <= DAYS; day++) {
+            administrator.run();
+
+            // Removes every other free student still waiting for a seat.
+            boolean remove = false;
+            for (Subject subject : school.getSubjects()) {
+                for (Student student : school.getWaitlist(subject)) {
+                    if (student.getAttendedCourse().isEmpty() && !removedStudents.contains(student)) {
+                        if (remove) {
+                            removedStudents.add(student);
+                            school.remove(student);
+                        }
+                        remove = !remove;
+                    }
+                }
+            }
+            for (Course course : school.getCourses()) {
+                for (Student student : course.getStudents()) {
+                    TestUtility.check(!removedStudents.contains(student), student.getName() + " was enrolled on day " +
+                            day + " after leaving the school.");
+                }
+            }
+        }
+        TestUtility.check(!removedStudents.isEmpty(), "No student was waiting for a seat.");
+        for (Student student : removedStudents) {
+            TestUtility.check(student.getAttendedCourse().isEmpty(),
+                    student.getName() + " attends a course after leaving.");
+        }
+    }
+
+    /**
+     * Numbers the students of the {@link School} passed as parameter in the order they were admitted.
+     *
+     * @param school        the school to number the students of
+     * @return the index of each student of the school
+     */
+    private static IdentityHashMap<Student, Integer> admissions(School school) {
+        IdentityHashMap<Student, Integer> admissions = new IdentityHashMap<>();
+        for (Student student : school.getStudents()) {
+            admissions.put(student, admissions.size());
+        }
+        return admissions;
+    }
+
+    /**
+     * WaitlistTest's class main method.
+     * Runs all the checks, printing a line once they have all passed.
+     */
+    public static void main(String[] args) {
+        firstEnrolmentsMatchScan();
+        sameSeedSameEnrolments();
+        waitlistIsFirstComeFirstServed();
+        removedStudentsAreNeverEnrolled();
+        System.out.println("WaitlistTest: all checks passed.");
+    }
+}